@@ -0,0 +1,59 @@
+// k6 load test comparing platform-thread and virtual-thread request execution.
+//
+// Run the app once per mode against the same database, then run this script against each:
+//   VIRTUAL_THREADS_ENABLED=false ./mvnw spring-boot:run
+//   k6 run -e MODE=platform -e EMAIL=<admin> -e PASSWORD=<password> loadtest/thread-modes.js
+//   VIRTUAL_THREADS_ENABLED=true ./mvnw spring-boot:run   (in-flight cap defaults to 200, MAX_CONCURRENT_REQUESTS overrides it)
+//   k6 run -e MODE=virtual -e EMAIL=<admin> -e PASSWORD=<password> loadtest/thread-modes.js
+//
+// Each run writes summary-<MODE>.json. Compare http_req_duration p95/p99, http_reqs rate and
+// http_req_failed between the two files, together with the hikaricp_connections_pending and
+// lms_virtual_pinned metrics scraped during the run.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8000';
+const MODE = __ENV.MODE || 'unknown';
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'ramping-arrival-rate',
+            startRate: 50,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            stages: [
+                { target: 200, duration: '1m' },
+                { target: 800, duration: '2m' },
+                { target: 800, duration: '2m' },
+                { target: 0, duration: '30s' },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const response = http.post(`${BASE_URL}/api/v1/auth/login`,
+        JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(response, { 'logged in': (r) => r.status === 200 });
+    return { token: response.json('data.token') };
+}
+
+export default function (data) {
+    const params = { headers: { Authorization: `Bearer ${data.token}` } };
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/v1/leaves`, null, params],
+        ['GET', `${BASE_URL}/api/v1/departments`, null, params],
+        ['GET', `${BASE_URL}/api/v1/users/search?q=a&size=20`, null, params],
+    ]);
+    responses.forEach((r) => check(r, { 'status 200': (res) => res.status === 200 }));
+}
+
+export function handleSummary(data) {
+    return { [`summary-${MODE}.json`]: JSON.stringify(data, null, 2) };
+}
@@ -0,0 +1,62 @@
+package leavemanagementsystem.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import leavemanagementsystem.dto.ApiResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON converter that reuses one {@link ObjectWriter} per declared response type.
+ * <p>
+ * For an {@code ApiResponse<T>} body Spring creates a new untyped writer on every response, and
+ * Jackson then resolves the serializers from the runtime classes. A writer created for the full
+ * generic type resolves its serializer chain once. Writers are cached for {@code ApiResponse} and
+ * collection bodies (the declared return types, so the cache stays small), and the common ones are
+ * built at startup. Responses using a JSON view, filters or server-sent events keep Spring's writer.
+ */
+public class CachingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public CachingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    /**
+     * Builds the writers for {@code ApiResponse<T>} and {@code ApiResponse<List<T>>} of each data type.
+     */
+    public void prepareApiResponses(Class<?>... dataTypes) {
+        TypeFactory typeFactory = getObjectMapper().getTypeFactory();
+        for (Class<?> dataType : dataTypes) {
+            writerFor(typeFactory.constructParametricType(ApiResponse.class, dataType));
+            writerFor(typeFactory.constructParametricType(ApiResponse.class,
+                    typeFactory.constructCollectionType(List.class, dataType)));
+        }
+    }
+
+    public void prepare(JavaType type) {
+        writerFor(type);
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+        if (javaType == null
+                || !(javaType.hasRawClass(ApiResponse.class) || javaType.isContainerType())
+                || writer.getConfig() != getObjectMapper().getSerializationConfig()
+                || (contentType != null && contentType.isCompatibleWith(MediaType.TEXT_EVENT_STREAM))) {
+            return writer;
+        }
+        return writerFor(javaType);
+    }
+
+    private ObjectWriter writerFor(JavaType type) {
+        return writers.computeIfAbsent(type, key -> getObjectMapper().writerFor(key));
+    }
+}
@@ -0,0 +1,110 @@
+package leavemanagementsystem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests processed at once.
+ * <p>
+ * With platform threads, Tomcat's worker pool already does this. With virtual threads every
+ * request gets its own thread, so without a cap a burst turns into thousands of threads queueing
+ * for a handful of database connections until they time out. Requests that cannot get a permit
+ * within the wait time get a 503 with {@code Retry-After}.
+ * <p>
+ * When no limit is configured, virtual thread mode admits as many requests as Tomcat's platform
+ * worker pool would, and platform mode is left uncapped. A limit of 0 disables the filter.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final Semaphore permits;
+    private final long waitMillis;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry,
+                                  ObjectMapper objectMapper,
+                                  @Value("${application.http.max-concurrent-requests:}") Integer configuredLimit,
+                                  @Value("${application.http.max-queue-wait-ms:1000}") long waitMillis,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                  @Value("${server.tomcat.threads.max:200}") int platformThreads) {
+        int maxConcurrentRequests = configuredLimit != null ? configuredLimit : (virtualThreads ? platformThreads : 0);
+        if (virtualThreads && maxConcurrentRequests <= 0) {
+            log.warn("Virtual threads are enabled without a concurrency limit; request bursts are only bounded by the connection pool");
+        } else if (maxConcurrentRequests > 0) {
+            log.info("Limiting in-flight requests to {}", maxConcurrentRequests);
+        }
+        this.objectMapper = objectMapper;
+        this.permits = maxConcurrentRequests > 0 ? new Semaphore(maxConcurrentRequests) : null;
+        this.waitMillis = waitMillis;
+        this.rejected = Counter.builder("lms.http.concurrency.rejected")
+                .description("Requests rejected because the concurrency limit was reached")
+                .register(meterRegistry);
+        if (permits != null) {
+            Gauge.builder("lms.http.concurrency.in-flight", permits, p -> maxConcurrentRequests - p.availablePermits())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return permits == null || request.getRequestURI().startsWith("/actuator/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            reject(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        errorResponse.put("message", "The server is busy, please try again shortly");
+        errorResponse.put("path", request.getRequestURI());
+
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -32,6 +32,9 @@ public class DataInitializer implements CommandLineRunner {
         // Ensure Administration department exists
         departmentService.ensureAdministrationDepartmentExists();
         
+        // Register departments created before the hierarchy existed as roots
+        departmentService.ensureHierarchyInitialized();
+        
         // Create default admin user if not exists
         createDefaultAdminUser();
 
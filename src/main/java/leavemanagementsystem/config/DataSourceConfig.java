@@ -0,0 +1,108 @@
+package leavemanagementsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Primary connection pool, plus an optional read replica for {@code @Transactional(readOnly = true)}
+ * methods. Without {@code application.datasource.replica.url} every transaction uses the primary.
+ * Both pools are wrapped in an {@link InstrumentedDataSource} for acquire and leak metrics.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 DataSourceProperties properties,
+                                 MeterRegistry meterRegistry,
+                                 ObservationRegistry observationRegistry,
+                                 @Value("${management.tracing.enabled:true}") boolean tracing,
+                                 @Value("${application.datasource.replica.url:}") String replicaUrl,
+                                 @Value("${application.datasource.replica.username:}") String replicaUsername,
+                                 @Value("${application.datasource.replica.password:}") String replicaPassword,
+                                 @Value("${application.datasource.replica.maximum-pool-size:10}") int replicaPoolSize,
+                                 @Value("${application.datasource.replica.read-your-writes-ms:5000}") long readYourWritesMillis,
+                                 @Value("${application.datasource.replica.max-lag-ms:2000}") long maxLagMillis,
+                                 @Value("${application.datasource.replica.health-check-ms:5000}") long healthCheckMillis,
+                                 @Value("${application.datasource.slow-acquire-ms:100}") long slowAcquireMillis,
+                                 @Value("${application.datasource.leak-threshold-ms:60000}") long leakThresholdMillis) {
+        // Statement spans only when tracing, otherwise every statement would also be timed as a metric
+        ObservationRegistry statementObservations = tracing ? observationRegistry : ObservationRegistry.NOOP;
+        InstrumentedDataSource primary = new InstrumentedDataSource(primaryDataSource, "primary", meterRegistry,
+                statementObservations, slowAcquireMillis, leakThresholdMillis);
+        if (replicaUrl.isBlank()) {
+            return primary;
+        }
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica");
+        replica.setJdbcUrl(replicaUrl);
+        replica.setUsername(replicaUsername.isBlank() ? properties.determineUsername() : replicaUsername);
+        replica.setPassword(replicaPassword.isBlank() ? properties.determinePassword() : replicaPassword);
+        replica.setMaximumPoolSize(replicaPoolSize);
+        replica.setReadOnly(true);
+        // Start even when the replica is down; the health check routes around it
+        replica.setInitializationFailTimeout(-1);
+        replica.setConnectionTimeout(Math.min(primaryDataSource.getConnectionTimeout(), 5000));
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        InstrumentedDataSource instrumentedReplica = new InstrumentedDataSource(replica, "replica", meterRegistry,
+                statementObservations, slowAcquireMillis, leakThresholdMillis);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, instrumentedReplica,
+                Duration.ofMillis(readYourWritesMillis), maxLagMillis, healthCheckMillis);
+        routing.afterPropertiesSet();
+        Gauge.builder("lms.datasource.replica.healthy", routing, r -> r.isReplicaHealthy() ? 1 : 0)
+                .register(meterRegistry);
+        Gauge.builder("lms.datasource.replica.lag", routing, ReplicaRoutingDataSource::getReplicaLagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return new ClosingLazyConnectionDataSourceProxy(routing, primary, instrumentedReplica, replica);
+    }
+
+    /**
+     * Defers fetching the physical connection until the first statement, when the transaction's
+     * read-only flag is known, and closes the routing resources on shutdown.
+     */
+    static class ClosingLazyConnectionDataSourceProxy extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final ReplicaRoutingDataSource routing;
+        private final List<AutoCloseable> resources;
+
+        ClosingLazyConnectionDataSourceProxy(ReplicaRoutingDataSource routing, AutoCloseable... resources) {
+            super(routing);
+            this.routing = routing;
+            this.resources = List.of(resources);
+        }
+
+        @Override
+        public void close() throws Exception {
+            routing.close();
+            for (AutoCloseable resource : resources) {
+                resource.close();
+            }
+        }
+    }
+}
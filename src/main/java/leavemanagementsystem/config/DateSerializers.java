@@ -0,0 +1,118 @@
+package leavemanagementsystem.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import leavemanagementsystem.util.DateFormats;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Serializers for {@link DateFormats#DATE} and {@link DateFormats#DATE_TIME} that write the digits
+ * directly instead of going through a {@code DateTimeFormatter}, which dominated the cost of
+ * serializing leave lists. Properties annotated with another pattern or shape, and years outside
+ * 0-9999, are handed to the JSR-310 serializers.
+ */
+final class DateSerializers {
+
+    private DateSerializers() {
+    }
+
+    static final class Date extends StdSerializer<LocalDate> implements ContextualSerializer {
+
+        private static final LocalDateSerializer FALLBACK = new LocalDateSerializer(DateFormats.DATE_FORMATTER);
+
+        Date() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public void serialize(LocalDate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (!inRange(value.getYear())) {
+                FALLBACK.serialize(value, gen, provider);
+                return;
+            }
+            char[] chars = new char[10];
+            writeDate(chars, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+            gen.writeString(chars, 0, chars.length);
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+            return usesPattern(provider, property, DateFormats.DATE) ? this : FALLBACK.createContextual(provider, property);
+        }
+    }
+
+    static final class DateTime extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+
+        private static final LocalDateTimeSerializer FALLBACK = new LocalDateTimeSerializer(DateFormats.DATE_TIME_FORMATTER);
+
+        DateTime() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (!inRange(value.getYear())) {
+                FALLBACK.serialize(value, gen, provider);
+                return;
+            }
+            char[] chars = new char[19];
+            writeDate(chars, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+            chars[10] = ' ';
+            writeTwoDigits(chars, 11, value.getHour());
+            chars[13] = ':';
+            writeTwoDigits(chars, 14, value.getMinute());
+            chars[16] = ':';
+            writeTwoDigits(chars, 17, value.getSecond());
+            gen.writeString(chars, 0, chars.length);
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+            return usesPattern(provider, property, DateFormats.DATE_TIME) ? this : FALLBACK.createContextual(provider, property);
+        }
+    }
+
+    /**
+     * Whether the property is written as a string in the given pattern: it has no format of its own,
+     * or one with only that pattern.
+     */
+    private static boolean usesPattern(SerializerProvider provider, BeanProperty property, String pattern) {
+        if (property == null) {
+            return true;
+        }
+        JsonFormat.Value format = property.findPropertyFormat(provider.getConfig(), property.getType().getRawClass());
+        return (!format.hasPattern() || format.getPattern().equals(pattern))
+                && (format.getShape() == JsonFormat.Shape.ANY || format.getShape() == JsonFormat.Shape.STRING)
+                && !format.hasLocale()
+                && !format.hasTimeZone();
+    }
+
+    private static boolean inRange(int year) {
+        return year >= 0 && year <= 9999;
+    }
+
+    private static void writeDate(char[] chars, int year, int month, int day) {
+        writeTwoDigits(chars, 0, year / 100);
+        writeTwoDigits(chars, 2, year % 100);
+        chars[4] = '-';
+        writeTwoDigits(chars, 5, month);
+        chars[7] = '-';
+        writeTwoDigits(chars, 8, day);
+    }
+
+    private static void writeTwoDigits(char[] chars, int offset, int value) {
+        chars[offset] = (char) ('0' + value / 10);
+        chars[offset + 1] = (char) ('0' + value % 10);
+    }
+}
@@ -0,0 +1,72 @@
+package leavemanagementsystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency of every controller method in {@code lms.http.handler}, tagged with the
+ * controller, the method and the status family.
+ * <p>
+ * A timer is registered the first time a handler completes with its status family, since most
+ * handlers never see 1xx or 3xx and every timer exports a full histogram. It is then kept in a
+ * slot per {@link Method} and status family, so recording costs a map read, an array read and a
+ * lock-free histogram update. Two threads filling the same slot get the same timer back from the
+ * registry, so the slots need no locking.
+ */
+public class HandlerTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = HandlerTimingInterceptor.class.getName() + ".start";
+    private static final String[] STATUS_FAMILIES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public HandlerTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        int status = ex != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        int family = Math.min(4, Math.max(0, status / 100 - 1));
+        Timer[] handlerTimers = timers.get(handlerMethod.getMethod());
+        if (handlerTimers == null) {
+            handlerTimers = timers.computeIfAbsent(handlerMethod.getMethod(), method -> new Timer[STATUS_FAMILIES.length]);
+        }
+        Timer timer = handlerTimers[family];
+        if (timer == null) {
+            timer = register(handlerMethod, family);
+            handlerTimers[family] = timer;
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer register(HandlerMethod handlerMethod, int family) {
+        return Timer.builder("lms.http.handler")
+                .description("Latency of controller methods")
+                .tag("controller", handlerMethod.getBeanType().getSimpleName())
+                .tag("method", handlerMethod.getMethod().getName())
+                .tag("status", STATUS_FAMILIES[family])
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,227 @@
+package leavemanagementsystem.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how long callers wait for a pooled connection and how long they keep it.
+ * <p>
+ * Acquisitions slower than the warning threshold are logged with the repository method that
+ * triggered them, found by walking the stack for the Spring Data proxy (or the first application
+ * frame when the connection is taken at transaction start). Connections held longer than the
+ * leak threshold are counted in {@code lms.datasource.connections.leak.suspected} and logged with
+ * the holder's current stack, once per checkout. HikariCP's own pool gauges are bound by Spring
+ * Boot as {@code hikaricp.connections.*}.
+ * <p>
+ * While a {@link QueryStatistics} scope is open on the calling thread, or the thread is inside a
+ * traced observation, statements are wrapped as well: executions are counted for the scope and
+ * each one becomes a {@code lms.jdbc.statement} span carrying its SQL.
+ */
+@Slf4j
+public class InstrumentedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final String APPLICATION_PACKAGE = "leavemanagementsystem.";
+    private static final String REPOSITORY_PACKAGE = "leavemanagementsystem.repository.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final String pool;
+    private final ObservationRegistry observationRegistry;
+    private final long slowAcquireNanos;
+    private final long leakThresholdNanos;
+    private final Timer acquireTimer;
+    private final Timer holdTimer;
+    private final Counter slowAcquireCounter;
+    private final Counter leakCounter;
+    private final Map<Connection, Checkout> checkouts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService leakScanner;
+
+    private static final class Checkout {
+        final Thread thread = Thread.currentThread();
+        final long acquiredAt = System.nanoTime();
+        volatile boolean reported;
+    }
+
+    public InstrumentedDataSource(DataSource target, String pool, MeterRegistry meterRegistry,
+                                  ObservationRegistry observationRegistry,
+                                  long slowAcquireMillis, long leakThresholdMillis) {
+        super(target);
+        this.pool = pool;
+        this.observationRegistry = observationRegistry;
+        this.slowAcquireNanos = TimeUnit.MILLISECONDS.toNanos(slowAcquireMillis);
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(leakThresholdMillis);
+        this.acquireTimer = Timer.builder("lms.datasource.acquire")
+                .description("Time spent waiting for a pooled connection")
+                .tag("pool", pool)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.holdTimer = Timer.builder("lms.datasource.hold")
+                .description("Time a connection was kept before being returned")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        this.slowAcquireCounter = Counter.builder("lms.datasource.acquire.slow")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        this.leakCounter = Counter.builder("lms.datasource.connections.leak.suspected")
+                .tag("pool", pool)
+                .register(meterRegistry);
+
+        if (leakThresholdMillis > 0) {
+            leakScanner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "connection-leak-scan-" + pool);
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1000, leakThresholdMillis / 2);
+            leakScanner.scheduleWithFixedDelay(this::scanForLeaks, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            leakScanner = null;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        return track(connection, start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        return track(connection, start);
+    }
+
+    private Connection track(Connection connection, long start) {
+        long waited = System.nanoTime() - start;
+        acquireTimer.record(waited, TimeUnit.NANOSECONDS);
+        if (slowAcquireNanos > 0 && waited > slowAcquireNanos) {
+            slowAcquireCounter.increment();
+            log.warn("Waited {} ms for a connection from pool {} in {}", TimeUnit.NANOSECONDS.toMillis(waited), pool, findCaller());
+        }
+
+        Checkout checkout = new Checkout();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                if (checkouts.remove(proxy) != null) {
+                    holdTimer.record(System.nanoTime() - checkout.acquiredAt, TimeUnit.NANOSECONDS);
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            if (result instanceof Statement statement
+                    && (QueryStatistics.isActive() || observationRegistry.getCurrentObservation() != null)) {
+                return countExecutions(statement, method.getReturnType(), args != null && args.length > 0 ? (String) args[0] : null);
+            }
+            return result;
+        };
+        Connection proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+        checkouts.put(proxy, checkout);
+        return proxy;
+    }
+
+    /**
+     * Wraps a statement so that each execution is recorded with its SQL. Batches count once.
+     */
+    private Statement countExecutions(Statement statement, Class<?> type, String preparedSql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            Observation observation = Observation.createNotStarted("lms.jdbc.statement", observationRegistry)
+                    .contextualName("jdbc " + method.getName())
+                    .lowCardinalityKeyValue("pool", pool)
+                    .highCardinalityKeyValue("db.statement", sql != null ? sql : "")
+                    .start();
+            long start = System.nanoTime();
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                observation.error(e.getTargetException());
+                throw e.getTargetException();
+            } finally {
+                QueryStatistics.record(sql, System.nanoTime() - start);
+                observation.stop();
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private void scanForLeaks() {
+        long now = System.nanoTime();
+        checkouts.values().forEach(checkout -> {
+            if (!checkout.reported && now - checkout.acquiredAt > leakThresholdNanos) {
+                checkout.reported = true;
+                leakCounter.increment();
+                log.warn("Connection from pool {} held for {} ms by thread {}, possible leak at:\n    {}",
+                        pool, TimeUnit.NANOSECONDS.toMillis(now - checkout.acquiredAt), checkout.thread.getName(),
+                        Arrays.stream(checkout.thread.getStackTrace())
+                                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE))
+                                .limit(8)
+                                .map(StackTraceElement::toString)
+                                .collect(Collectors.joining("\n    ")));
+            }
+        });
+    }
+
+    /**
+     * Returns the repository method that asked for the connection, e.g. {@code UserRepository.findByEmail}.
+     */
+    static String findCaller() {
+        return STACK_WALKER.walk(frames -> {
+            String applicationFrame = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                Class<?> type = frame.getDeclaringClass();
+                if (Proxy.isProxyClass(type)) {
+                    for (Class<?> candidate : type.getInterfaces()) {
+                        if (candidate.getName().startsWith(REPOSITORY_PACKAGE)) {
+                            return candidate.getSimpleName() + "." + frame.getMethodName();
+                        }
+                    }
+                }
+                if (applicationFrame == null && type.getName().startsWith(APPLICATION_PACKAGE)
+                        && !type.getPackageName().equals(InstrumentedDataSource.class.getPackageName())) {
+                    applicationFrame = type.getSimpleName() + "." + frame.getMethodName();
+                }
+            }
+            return applicationFrame != null ? applicationFrame : "unknown caller";
+        });
+    }
+
+    @Override
+    public void close() {
+        if (leakScanner != null) {
+            leakScanner.shutdownNow();
+        }
+    }
+}
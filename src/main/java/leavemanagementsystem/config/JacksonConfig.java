@@ -5,44 +5,54 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import leavemanagementsystem.util.DateFormats;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.time.format.DateTimeFormatter;
-
+/**
+ * The application's only {@link ObjectMapper}. It is used for HTTP bodies (see
+ * {@link SecurityJacksonConfig}), the JSON errors written by security handlers and filters, and
+ * span export, so every response formats dates the same way.
+ * <p>
+ * Dates without a {@code @JsonFormat} use {@link DateFormats#DATE} and {@link DateFormats#DATE_TIME}.
+ * Both are written by {@link DateSerializers} without a formatter. The Blackbird module replaces
+ * reflective getter and setter calls with generated lambdas.
+ */
 @Configuration
 public class JacksonConfig {
 
-    private static final String DATE_FORMAT = "yyyy-MM-dd";
-    private static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
-
     @Bean
     public ObjectMapper objectMapper() {
+        return createObjectMapper();
+    }
+
+    /**
+     * Builds the mapper outside the application context, for benchmarks.
+     */
+    public static ObjectMapper createObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
-        
+
         // Create JavaTimeModule for handling Java 8 date/time types
         JavaTimeModule javaTimeModule = new JavaTimeModule();
-        
+
         // Add serializers for LocalDate and LocalDateTime
-        javaTimeModule.addSerializer(java.time.LocalDate.class, 
-                new LocalDateSerializer(DateTimeFormatter.ofPattern(DATE_FORMAT)));
-        javaTimeModule.addSerializer(java.time.LocalDateTime.class, 
-                new LocalDateTimeSerializer(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT)));
-        
+        javaTimeModule.addSerializer(java.time.LocalDate.class, new DateSerializers.Date());
+        javaTimeModule.addSerializer(java.time.LocalDateTime.class, new DateSerializers.DateTime());
+
         // Add deserializers for LocalDate and LocalDateTime
-        javaTimeModule.addDeserializer(java.time.LocalDate.class, 
-                new LocalDateDeserializer(DateTimeFormatter.ofPattern(DATE_FORMAT)));
-        javaTimeModule.addDeserializer(java.time.LocalDateTime.class, 
-                new LocalDateTimeDeserializer(DateTimeFormatter.ofPattern(DATE_TIME_FORMAT)));
-        
-        // Register the module
+        javaTimeModule.addDeserializer(java.time.LocalDate.class,
+                new LocalDateDeserializer(DateFormats.DATE_FORMATTER));
+        javaTimeModule.addDeserializer(java.time.LocalDateTime.class,
+                new LocalDateTimeDeserializer(DateFormats.DATE_TIME_FORMATTER));
+
+        // Register the modules
         objectMapper.registerModule(javaTimeModule);
-        
+        objectMapper.registerModule(new BlackbirdModule());
+
         // Disable writing dates as timestamps
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        
+
         return objectMapper;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package leavemanagementsystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Latency metrics for controllers and repositories, exported with the rest at
+ * {@code /actuator/prometheus}.
+ * <p>
+ * {@code lms.http.handler}, {@code lms.repository} and {@code lms.email.send} publish p50, p99 and
+ * p999 over a sliding window, plus Prometheus histogram buckets between 1 ms and 30 s so that
+ * percentiles can also be aggregated across nodes.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private static final String[] LATENCY_METRICS = {"lms.http.handler", "lms.repository", "lms.email.send"};
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public MetricsConfig(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerTimingInterceptor(meterRegistry.getObject()));
+    }
+
+    @Bean
+    public MeterFilter latencyHistogramFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                for (String name : LATENCY_METRICS) {
+                    if (id.getName().equals(name)) {
+                        return DistributionStatisticConfig.builder()
+                                .percentiles(0.5, 0.99, 0.999)
+                                .percentilesHistogram(true)
+                                .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                                .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                                .build()
+                                .merge(config);
+                    }
+                }
+                return config;
+            }
+        };
+    }
+
+    /**
+     * Adds the timing interceptor to every Spring Data repository when its factory is created.
+     * Static, and resolving the registry lazily, so that it does not force early initialization.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(new RepositoryTimingInterceptor(
+                                    meterRegistry.getObject(), information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
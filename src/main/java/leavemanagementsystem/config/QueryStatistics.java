@@ -0,0 +1,100 @@
+package leavemanagementsystem.config;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements executed by the current thread within a scope, typically one HTTP request.
+ * <p>
+ * Statements are recorded by {@link InstrumentedDataSource} only while a scope is open. Scopes nest:
+ * a statement counts towards the innermost scope and every enclosing one, so a test can wrap a
+ * request that the {@link QueryStatisticsFilter} also measures. Statements are grouped by shape,
+ * the SQL text with {@code IN} lists collapsed, to find the same query repeated with different
+ * parameters.
+ */
+public final class QueryStatistics implements AutoCloseable {
+
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\?(?:\\s*,\\s*\\?)+\\)");
+
+    private final QueryStatistics parent;
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int statementCount;
+    private long totalNanos;
+
+    private QueryStatistics(QueryStatistics parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Opens a scope on the current thread. Close it on the same thread.
+     */
+    public static QueryStatistics open() {
+        QueryStatistics statistics = new QueryStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static void record(String sql, long nanos) {
+        String shape = null;
+        for (QueryStatistics statistics = CURRENT.get(); statistics != null; statistics = statistics.parent) {
+            if (shape == null) {
+                shape = shapeOf(sql);
+            }
+            statistics.statementCount++;
+            statistics.totalNanos += nanos;
+            statistics.shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (parent != null) {
+            CURRENT.set(parent);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the shapes executed more than {@code threshold} times, with their counts.
+     */
+    public Map<String, Integer> getRepeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.forEach((shape, count) -> {
+            if (count > threshold) {
+                repeated.put(shape, count);
+            }
+        });
+        return repeated;
+    }
+
+    public int getMaxRepeat() {
+        int max = 0;
+        for (int count : shapes.values()) {
+            max = Math.max(max, count);
+        }
+        return max;
+    }
+
+    static String shapeOf(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        return sql.contains("?,") ? IN_LIST.matcher(sql).replaceAll("(?...)") : sql;
+    }
+}
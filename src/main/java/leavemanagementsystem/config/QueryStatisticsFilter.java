@@ -0,0 +1,104 @@
+package leavemanagementsystem.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements each request executes, including lazy loads during JSON rendering.
+ * <p>
+ * Counts and database time are always recorded as metrics. When one statement shape runs more
+ * than the threshold in a single request, the usual sign of an N+1 over a lazy association, the
+ * request is counted in {@code lms.http.sql.repeated} and logged with the offending SQL. With
+ * {@code application.sql-stats.headers=true} (for development), the response is buffered so the
+ * totals can be sent as {@code X-SQL-Count}, {@code X-SQL-Time-Ms} and {@code X-SQL-Max-Repeat}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryStatisticsFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final boolean headers;
+    private final int repeatThreshold;
+    private final DistributionSummary statementsPerRequest;
+    private final Timer timePerRequest;
+    private final Counter repeatedRequests;
+
+    public QueryStatisticsFilter(MeterRegistry meterRegistry,
+                                 @Value("${application.sql-stats.enabled:true}") boolean enabled,
+                                 @Value("${application.sql-stats.headers:false}") boolean headers,
+                                 @Value("${application.sql-stats.repeat-threshold:10}") int repeatThreshold) {
+        this.enabled = enabled;
+        this.headers = headers;
+        this.repeatThreshold = repeatThreshold;
+        this.statementsPerRequest = DistributionSummary.builder("lms.http.sql.statements")
+                .description("SQL statements executed per request")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.timePerRequest = Timer.builder("lms.http.sql.time")
+                .description("Time spent executing SQL per request")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.repeatedRequests = Counter.builder("lms.http.sql.repeated")
+                .description("Requests that repeated one statement shape more than the threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = headers ? new ContentCachingResponseWrapper(response) : null;
+        QueryStatistics statistics = QueryStatistics.open();
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            statistics.close();
+            report(request, statistics);
+            if (buffered != null) {
+                buffered.setHeader("X-SQL-Count", Integer.toString(statistics.getStatementCount()));
+                buffered.setHeader("X-SQL-Time-Ms", Long.toString(TimeUnit.NANOSECONDS.toMillis(statistics.getTotalNanos())));
+                buffered.setHeader("X-SQL-Max-Repeat", Integer.toString(statistics.getMaxRepeat()));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryStatistics statistics) {
+        if (statistics.getStatementCount() == 0) {
+            return;
+        }
+        statementsPerRequest.record(statistics.getStatementCount());
+        timePerRequest.record(statistics.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        if (statistics.getMaxRepeat() > repeatThreshold) {
+            repeatedRequests.increment();
+            for (Map.Entry<String, Integer> entry : statistics.getRepeatedShapes(repeatThreshold).entrySet()) {
+                log.warn("Possible N+1 in {} {}: statement ran {} times ({} statements in total): {}",
+                        request.getMethod(), request.getRequestURI(), entry.getValue(),
+                        statistics.getStatementCount(), entry.getKey());
+            }
+        }
+    }
+}
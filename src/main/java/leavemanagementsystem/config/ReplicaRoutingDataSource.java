@@ -0,0 +1,147 @@
+package leavemanagementsystem.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import leavemanagementsystem.model.User;
+import leavemanagementsystem.security.AuthenticatedPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * The routing key is taken from the transaction synchronization, so this data source must sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; otherwise the connection
+ * is fetched before the transaction is marked read-only. Reads still go to the primary when:
+ * <ul>
+ *   <li>the caller committed a write on this node within the read-your-writes window;</li>
+ *   <li>the last health check could not reach the replica, or found it lagging more than the allowed
+ *       maximum. The lag bound also limits staleness for callers whose write went to another node.</li>
+ * </ul>
+ * Caches that reload after an invalidation from another node must not read from the replica: it may
+ * not have replayed the change yet, and the cache would keep the old row. They load through a
+ * non-read-only {@code TransactionTemplate}, which this data source routes to the primary, as
+ * {@code ApproverDirectory} and {@code UserDirectoryIndex} do.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final String LAG_QUERY = "SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END, 0)";
+
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final Cache<Long, Boolean> recentWriters;
+    private final ScheduledExecutorService healthCheck;
+
+    private volatile boolean replicaHealthy;
+    private volatile long replicaLagMillis = -1;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow,
+                                    long maxLagMillis, long healthCheckMillis) {
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheck.scheduleWithFixedDelay(this::checkReplica, 0, healthCheckMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerWrite();
+            return Target.PRIMARY;
+        }
+        if (!replicaHealthy) {
+            return Target.PRIMARY;
+        }
+        Long userId = currentUserId();
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    public long getReplicaLagMillis() {
+        return replicaLagMillis;
+    }
+
+    /**
+     * Pins the caller's reads to the primary once their transaction has committed.
+     */
+    private void registerWrite() {
+        Long userId = currentUserId();
+        if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(userId, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication != null ? authentication.getPrincipal() : null;
+        if (principal instanceof AuthenticatedPrincipal authenticated) {
+            return authenticated.getId();
+        }
+        return principal instanceof User user ? user.getId() : null;
+    }
+
+    private void checkReplica() {
+        boolean healthy;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            replicaLagMillis = resultSet.getLong(1);
+            healthy = replicaLagMillis <= maxLagMillis;
+        } catch (SQLException | RuntimeException e) {
+            replicaLagMillis = -1;
+            healthy = false;
+            log.debug("Replica health check failed", e);
+        }
+        if (healthy != replicaHealthy) {
+            log.warn(healthy ? "Replica is healthy, routing read-only transactions to it"
+                    : "Replica is unavailable or lagging ({} ms), routing all transactions to the primary", replicaLagMillis);
+            replicaHealthy = healthy;
+        }
+    }
+
+    public void close() {
+        healthCheck.shutdownNow();
+    }
+}
@@ -0,0 +1,63 @@
+package leavemanagementsystem.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every method of one repository in {@code lms.repository} and counts the calls that threw
+ * in {@code lms.repository.errors}. Meters are resolved once per method, so a call records into
+ * existing meters without allocating.
+ */
+class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    private record Meters(Timer timer, Counter errors) {
+    }
+
+    RepositoryTimingInterceptor(MeterRegistry meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Meters methodMeters = meters.get(method);
+        if (methodMeters == null) {
+            methodMeters = meters.computeIfAbsent(method, this::register);
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            methodMeters.errors().increment();
+            throw e;
+        } finally {
+            methodMeters.timer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Meters register(Method method) {
+        Timer timer = Timer.builder("lms.repository")
+                .description("Latency of repository methods")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .register(meterRegistry);
+        Counter errors = Counter.builder("lms.repository.errors")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .register(meterRegistry);
+        return new Meters(timer, errors);
+    }
+}
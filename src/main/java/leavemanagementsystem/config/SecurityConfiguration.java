@@ -1,6 +1,7 @@
 package leavemanagementsystem.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import leavemanagementsystem.security.JwtAccessDeniedHandler;
 import leavemanagementsystem.security.JwtAuthenticationEntryPoint;
 import leavemanagementsystem.security.JwtAuthenticationFilter;
@@ -39,6 +40,9 @@ public class SecurityConfiguration {
     private final JwtAccessDeniedHandler accessDeniedHandler;
     private final MvcRequestMatcher.Builder mvc;
 
+    @Value("${application.security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -59,6 +63,8 @@ public class SecurityConfiguration {
                 .requestMatchers(mvc.pattern("/configuration/security")).permitAll()
                 .requestMatchers(mvc.pattern("/swagger-ui.html")).permitAll()
                 .requestMatchers(mvc.pattern("/webjars/**")).permitAll()
+                .requestMatchers(mvc.pattern("/actuator/health")).permitAll()
+                .requestMatchers(mvc.pattern("/actuator/**")).hasRole("ADMIN")
                 .requestMatchers(mvc.pattern("/api/v1/admin/**")).hasRole("ADMIN")
                 .requestMatchers(mvc.pattern("/api/v1/manager/**")).hasAnyRole("ADMIN", "MANAGER")
                 .anyRequest().authenticated()
@@ -87,7 +93,8 @@ public class SecurityConfiguration {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // Raising the strength makes existing hashes get re-encoded on the next successful login
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
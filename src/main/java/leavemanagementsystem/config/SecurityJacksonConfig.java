@@ -1,7 +1,15 @@
 package leavemanagementsystem.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import leavemanagementsystem.dto.ApiResponse;
+import leavemanagementsystem.dto.AuthenticationResponse;
+import leavemanagementsystem.dto.DepartmentSummaryDTO;
+import leavemanagementsystem.dto.PageResponse;
+import leavemanagementsystem.dto.UserSummaryDTO;
+import leavemanagementsystem.model.Department;
+import leavemanagementsystem.model.Leave;
+import leavemanagementsystem.model.User;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -12,11 +20,13 @@ import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
 public class SecurityJacksonConfig {
 
     @Bean
-    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter() {
-        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        converter.setObjectMapper(objectMapper);
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        CachingJackson2HttpMessageConverter converter = new CachingJackson2HttpMessageConverter(objectMapper);
+        converter.prepareApiResponses(Leave.class, User.class, Department.class, DepartmentSummaryDTO.class,
+                AuthenticationResponse.class);
+        TypeFactory types = objectMapper.getTypeFactory();
+        converter.prepare(types.constructParametricType(ApiResponse.class,
+                types.constructParametricType(PageResponse.class, UserSummaryDTO.class)));
         return converter;
     }
 
@@ -24,4 +34,4 @@ public class SecurityJacksonConfig {
     public MvcRequestMatcher.Builder mvc(HandlerMappingIntrospector introspector) {
         return new MvcRequestMatcher.Builder(introspector);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package leavemanagementsystem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Tracing setup on top of Spring Boot's OpenTelemetry bridge.
+ * <p>
+ * HTTP requests, the security filter chain, {@code @Observed} services, SQL statements (see
+ * {@link InstrumentedDataSource}) and email rendering and delivery each produce a span. Spans go
+ * to every {@code SpanExporter} bean: the local file exporter below, and Spring Boot's OTLP
+ * exporter when {@code management.otlp.tracing.endpoint} is set. The task decorator carries the
+ * trace context into async work such as the {@code EmailDispatcher}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(name = {"management.tracing.enabled", "application.tracing.file.enabled"}, havingValue = "true")
+    public FileSpanExporter fileSpanExporter(ObjectMapper objectMapper,
+                                             @Value("${application.tracing.file.path:logs/traces.jsonl}") String path,
+                                             @Value("${application.tracing.file.max-size-mb:100}") long maxSizeMb) throws IOException {
+        return new FileSpanExporter(Path.of(path), maxSizeMb * 1024 * 1024, objectMapper);
+    }
+}
@@ -1,5 +1,6 @@
 package leavemanagementsystem.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import leavemanagementsystem.dto.*;
 import leavemanagementsystem.service.AuthenticationService;
@@ -20,8 +21,9 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthenticationResponse>> login(@RequestBody AuthenticationRequest request) {
-        AuthenticationResponse response = authService.authenticate(request);
+    public ResponseEntity<ApiResponse<AuthenticationResponse>> login(@RequestBody AuthenticationRequest request,
+                                                                     HttpServletRequest httpRequest) {
+        AuthenticationResponse response = authService.authenticate(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(ApiResponse.success(response, "Login successful"));
     }
 
@@ -30,4 +32,10 @@ public class AuthController {
         AuthenticationResponse response = authService.refreshToken(request.getRefreshToken());
         return ResponseEntity.ok(ApiResponse.success(response, "Token refreshed successfully"));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@RequestBody RefreshTokenRequest request) {
+        authService.logout(request.getRefreshToken());
+        return ResponseEntity.ok(ApiResponse.success(null, "Logged out successfully"));
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,28 @@
+package leavemanagementsystem.controller;
+
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import leavemanagementsystem.dto.ApiResponse;
+import leavemanagementsystem.dto.CacheRegionStatsDTO;
+import leavemanagementsystem.service.EntityCacheService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/cache")
+@SecurityRequirement(name = "bearerAuth")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final EntityCacheService entityCacheService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<CacheRegionStatsDTO>>> getStatistics() {
+        List<CacheRegionStatsDTO> statistics = entityCacheService.getStatistics();
+        return ResponseEntity.ok(ApiResponse.success(statistics, "Cache statistics retrieved successfully"));
+    }
+}
@@ -5,6 +5,9 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import leavemanagementsystem.dto.ApiResponse;
 import leavemanagementsystem.dto.DepartmentRequest;
+import leavemanagementsystem.dto.DepartmentSummaryDTO;
+import leavemanagementsystem.dto.PageResponse;
+import leavemanagementsystem.dto.UserSummaryDTO;
 import leavemanagementsystem.model.Department;
 import leavemanagementsystem.service.DepartmentService;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +30,7 @@ public class DepartmentController {
         Department department = Department.builder()
                 .name(request.getName())
                 .description(request.getDescription())
+                .parent(request.getParentId() != null ? departmentService.getDepartment(request.getParentId()) : null)
                 .build();
         
         Department createdDepartment = departmentService.createDepartment(department);
@@ -35,18 +39,28 @@ public class DepartmentController {
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<ApiResponse<Department>> getDepartment(@PathVariable Long id) {
-        Department department = departmentService.getDepartment(id);
+    public ResponseEntity<ApiResponse<DepartmentSummaryDTO>> getDepartment(@PathVariable Long id) {
+        DepartmentSummaryDTO department = departmentService.getDepartmentSummary(id);
         return ResponseEntity.ok(ApiResponse.success(department, "Department retrieved successfully"));
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<ApiResponse<List<Department>>> getAllDepartments() {
-        List<Department> departments = departmentService.getAllDepartments();
+    public ResponseEntity<ApiResponse<List<DepartmentSummaryDTO>>> getAllDepartments() {
+        List<DepartmentSummaryDTO> departments = departmentService.getDepartmentSummaries();
         return ResponseEntity.ok(ApiResponse.success(departments, "All departments retrieved successfully"));
     }
 
+    @GetMapping("/{id}/users")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ApiResponse<PageResponse<UserSummaryDTO>>> getDepartmentUsers(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        PageResponse<UserSummaryDTO> users = departmentService.getDepartmentMembers(id, page, size);
+        return ResponseEntity.ok(ApiResponse.success(users, "Department users retrieved successfully"));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Department>> updateDepartment(@PathVariable Long id, @Valid @RequestBody DepartmentRequest request) {
@@ -59,6 +73,14 @@ public class DepartmentController {
         return ResponseEntity.ok(ApiResponse.success(updatedDepartment, "Department updated successfully"));
     }
 
+    @PutMapping("/{id}/parent")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Department>> moveDepartment(@PathVariable Long id,
+                                                                  @RequestParam(required = false) Long parentId) {
+        Department department = departmentService.moveDepartment(id, parentId);
+        return ResponseEntity.ok(ApiResponse.success(department, "Department moved successfully"));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Void>> deleteDepartment(@PathVariable Long id) {
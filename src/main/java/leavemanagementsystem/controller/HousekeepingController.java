@@ -0,0 +1,35 @@
+package leavemanagementsystem.controller;
+
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import leavemanagementsystem.dto.ApiResponse;
+import leavemanagementsystem.dto.HousekeepingRunReport;
+import leavemanagementsystem.service.HousekeepingService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/housekeeping")
+@SecurityRequirement(name = "bearerAuth")
+@RequiredArgsConstructor
+public class HousekeepingController {
+
+    private final HousekeepingService housekeepingService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<HousekeepingRunReport>>> getRecentRuns() {
+        List<HousekeepingRunReport> runs = housekeepingService.getRecentRuns();
+        return ResponseEntity.ok(ApiResponse.success(runs, "Housekeeping runs retrieved successfully"));
+    }
+
+    @PostMapping("/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<HousekeepingRunReport>> run() {
+        HousekeepingRunReport report = housekeepingService.run("manual");
+        return ResponseEntity.ok(ApiResponse.success(report, "Housekeeping completed"));
+    }
+}
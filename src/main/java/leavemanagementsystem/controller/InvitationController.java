@@ -4,14 +4,18 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import leavemanagementsystem.dto.ApiResponse;
+import leavemanagementsystem.dto.BulkInvitationReport;
 import leavemanagementsystem.dto.CompleteInvitationRequest;
 import leavemanagementsystem.dto.InvitationRequest;
 import leavemanagementsystem.dto.TokenRenewalRequest;
 import leavemanagementsystem.model.UserInvitation;
+import leavemanagementsystem.service.BulkInvitationService;
 import leavemanagementsystem.service.InvitationService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -20,6 +24,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class InvitationController {
     private final InvitationService invitationService;
+    private final BulkInvitationService bulkInvitationService;
     
     @PostMapping
     @SecurityRequirement(name = "bearerAuth")
@@ -29,6 +34,14 @@ public class InvitationController {
         return ResponseEntity.ok(ApiResponse.success(null, "Invitation sent successfully"));
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<BulkInvitationReport>> bulkInvite(@RequestParam("file") MultipartFile file) {
+        BulkInvitationReport report = bulkInvitationService.importInvitations(file);
+        return ResponseEntity.ok(ApiResponse.success(report, "Bulk invitation import processed"));
+    }
+
     @GetMapping
     @SecurityRequirement(name = "bearerAuth")
     @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,28 @@
+package leavemanagementsystem.controller;
+
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import leavemanagementsystem.dto.ApiResponse;
+import leavemanagementsystem.model.JobLease;
+import leavemanagementsystem.service.JobCoordinator;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/jobs")
+@SecurityRequirement(name = "bearerAuth")
+@RequiredArgsConstructor
+public class JobController {
+
+    private final JobCoordinator jobCoordinator;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<JobLease>>> getLeases() {
+        List<JobLease> leases = jobCoordinator.getLeases();
+        return ResponseEntity.ok(ApiResponse.success(leases, "Job leases retrieved by node " + jobCoordinator.getNodeId()));
+    }
+}
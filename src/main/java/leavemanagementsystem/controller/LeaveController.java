@@ -5,17 +5,13 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import leavemanagementsystem.dto.ApiResponse;
 import leavemanagementsystem.dto.LeaveRequest;
-import leavemanagementsystem.exception.ResourceNotFoundException;
 import leavemanagementsystem.model.Leave;
 import leavemanagementsystem.model.LeaveStatus;
 import leavemanagementsystem.model.LeaveType;
-import leavemanagementsystem.model.User;
-import leavemanagementsystem.repository.UserRepository;
+import leavemanagementsystem.security.CurrentUser;
 import leavemanagementsystem.service.LeaveService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -27,11 +23,10 @@ import java.util.List;
 public class LeaveController {
 
     private final LeaveService leaveService;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
 
     @PostMapping("/request")
-    public ResponseEntity<ApiResponse<Leave>> requestLeave(@Valid @RequestBody LeaveRequest request,
-                                                         @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<ApiResponse<Leave>> requestLeave(@Valid @RequestBody LeaveRequest request) {
         Leave leave = new Leave();
         leave.setStartDate(request.getStartDate());
         leave.setEndDate(request.getEndDate());
@@ -45,7 +40,7 @@ public class LeaveController {
     @PostMapping("/record")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     public ResponseEntity<ApiResponse<Leave>> recordLeave(@Valid @RequestBody LeaveRequest request,
-                                                        @RequestParam Long userId, @AuthenticationPrincipal UserDetails userDetails) {
+                                                        @RequestParam Long userId) {
         Leave leave = new Leave();
         leave.setStartDate(request.getStartDate());
         leave.setEndDate(request.getEndDate());
@@ -53,10 +48,7 @@ public class LeaveController {
         leave.setReason(request.getReason());
 
         // Set the respondedBy field to the authenticated user
-        String email = userDetails.getUsername();
-        User responder = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        leave.setRespondedBy(responder);
+        leave.setRespondedBy(currentUser.getReference());
         
         Leave createdLeave = leaveService.createLeaveForUser(leave, userId);
         return ResponseEntity.ok(ApiResponse.success(createdLeave, "Leave has been recorded and automatically approved"));
@@ -106,8 +98,10 @@ public class LeaveController {
 
     @GetMapping("/department/{departmentId}")
     @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<List<Leave>>> getLeavesByDepartment(@PathVariable Long departmentId) {
-        List<Leave> leaves = leaveService.getLeavesByDepartment(departmentId);
+    public ResponseEntity<ApiResponse<List<Leave>>> getLeavesByDepartment(
+            @PathVariable Long departmentId,
+            @RequestParam(defaultValue = "false") boolean includeSubtree) {
+        List<Leave> leaves = leaveService.getLeavesByDepartment(departmentId, includeSubtree);
         return ResponseEntity.ok(ApiResponse.success(leaves));
     }
     
@@ -115,8 +109,9 @@ public class LeaveController {
     @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<Leave>>> getLeavesByDepartmentAndStatus(
             @PathVariable Long departmentId,
-            @PathVariable LeaveStatus status) {
-        List<Leave> leaves = leaveService.getLeavesByDepartmentAndStatus(departmentId, status);
+            @PathVariable LeaveStatus status,
+            @RequestParam(defaultValue = "false") boolean includeSubtree) {
+        List<Leave> leaves = leaveService.getLeavesByDepartmentAndStatus(departmentId, status, includeSubtree);
         return ResponseEntity.ok(ApiResponse.success(leaves));
     }
 
@@ -145,15 +140,10 @@ public class LeaveController {
     public ResponseEntity<ApiResponse<Leave>> respondToLeave(
             @PathVariable Long id,
             @RequestParam LeaveStatus status,
-            @RequestParam(required = false) String comment,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        
-        // Get the responder's ID from the authenticated user
-        String email = userDetails.getUsername();
-        User responder = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            @RequestParam(required = false) String comment) {
         
-        Leave leave = leaveService.respondToLeave(id, status, comment, responder.getId());
+        // The responder is the authenticated user
+        Leave leave = leaveService.respondToLeave(id, status, comment, currentUser.getId());
         String message = status == LeaveStatus.APPROVED ? 
                 "Leave request approved successfully" : 
                 "Leave request rejected successfully";
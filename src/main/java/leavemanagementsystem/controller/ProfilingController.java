@@ -0,0 +1,71 @@
+package leavemanagementsystem.controller;
+
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import leavemanagementsystem.dto.ApiResponse;
+import leavemanagementsystem.dto.ProfilingRecordingDTO;
+import leavemanagementsystem.dto.ProfilingSummaryDTO;
+import leavemanagementsystem.service.ProfilingService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/profiling")
+@SecurityRequirement(name = "bearerAuth")
+@RequiredArgsConstructor
+public class ProfilingController {
+
+    private final ProfilingService profilingService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<ProfilingRecordingDTO>>> getRecordings() {
+        List<ProfilingRecordingDTO> recordings = profilingService.getRecordings();
+        return ResponseEntity.ok(ApiResponse.success(recordings, "Profiling recordings retrieved successfully"));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ProfilingRecordingDTO>> start(
+            @RequestParam(defaultValue = "CPU") String preset,
+            @RequestParam(defaultValue = "60") long durationSeconds) {
+        ProfilingRecordingDTO recording = profilingService.start(ProfilingService.Preset.parse(preset), durationSeconds);
+        return ResponseEntity.ok(ApiResponse.success(recording, "Profiling recording started"));
+    }
+
+    @PostMapping("/{id}/stop")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ProfilingRecordingDTO>> stop(@PathVariable long id) {
+        ProfilingRecordingDTO recording = profilingService.stop(id);
+        return ResponseEntity.ok(ApiResponse.success(recording, "Profiling recording stopped"));
+    }
+
+    @GetMapping("/{id}/summary")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ProfilingSummaryDTO>> getSummary(@PathVariable long id,
+                                                                      @RequestParam(defaultValue = "20") int top) {
+        ProfilingSummaryDTO summary = profilingService.summarize(id, Math.max(1, Math.min(top, 200)));
+        return ResponseEntity.ok(ApiResponse.success(summary, "Profiling summary retrieved successfully"));
+    }
+
+    @GetMapping("/{id}/recording")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Resource> download(@PathVariable long id) {
+        FileSystemResource file = new FileSystemResource(profilingService.getRecordingFile(id));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("recording-" + id + ".jfr")
+                        .build()
+                        .toString())
+                .body(file);
+    }
+}
@@ -4,8 +4,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import leavemanagementsystem.dto.ApiResponse;
+import leavemanagementsystem.dto.BulkUserUpdateRequest;
+import leavemanagementsystem.dto.BulkUserUpdateResponse;
+import leavemanagementsystem.dto.PageResponse;
 import leavemanagementsystem.dto.RegisterRequest;
 import leavemanagementsystem.dto.UserApprovalRequest;
+import leavemanagementsystem.dto.UserSummaryDTO;
 import leavemanagementsystem.model.Role;
 import leavemanagementsystem.model.User;
 import leavemanagementsystem.model.UserStatus;
@@ -38,6 +42,16 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(users));
     }
 
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<ApiResponse<PageResponse<UserSummaryDTO>>> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        PageResponse<UserSummaryDTO> users = userService.searchUsers(q, page, size);
+        return ResponseEntity.ok(ApiResponse.success(users));
+    }
+
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ApiResponse<List<User>>> getUsersByStatus(@PathVariable UserStatus status) {
@@ -47,8 +61,10 @@ public class UserController {
 
     @GetMapping("/department/{departmentId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<ApiResponse<List<User>>> getUsersByDepartment(@PathVariable Long departmentId) {
-        List<User> users = userService.getUsersByDepartment(departmentId);
+    public ResponseEntity<ApiResponse<List<User>>> getUsersByDepartment(
+            @PathVariable Long departmentId,
+            @RequestParam(defaultValue = "false") boolean includeSubtree) {
+        List<User> users = userService.getUsersByDepartment(departmentId, includeSubtree);
         return ResponseEntity.ok(ApiResponse.success(users));
     }
 
@@ -75,6 +91,13 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(user, "User approved successfully"));
     }
 
+    @PutMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<BulkUserUpdateResponse>> bulkUpdateUsers(@Valid @RequestBody BulkUserUpdateRequest request) {
+        BulkUserUpdateResponse response = userService.bulkUpdateUsers(request);
+        return ResponseEntity.ok(ApiResponse.success(response, "Users updated successfully"));
+    }
+
     @PutMapping("/{id}/reject")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ApiResponse<User>> rejectUser(@PathVariable Long id) {
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import leavemanagementsystem.util.DateFormats;
 import org.springframework.http.HttpStatus;
 
 import java.time.LocalDateTime;
@@ -15,7 +16,7 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ApiResponse<T> {
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    @JsonFormat(pattern = DateFormats.TIMESTAMP)
     private LocalDateTime timestamp;
     private int status;
     private String message;
@@ -0,0 +1,20 @@
+package leavemanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkInvitationReport {
+    private int total;
+    private int invited;
+    private int skipped;
+    private int invalid;
+    private List<BulkInvitationRowResult> rows;
+}
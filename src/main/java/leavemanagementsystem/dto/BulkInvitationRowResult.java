@@ -0,0 +1,31 @@
+package leavemanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkInvitationRowResult {
+    private int row;
+    private String email;
+    private Status status;
+    private String message;
+    private EmailStatus emailStatus;
+
+    public enum Status {
+        INVITED,
+        ALREADY_REGISTERED,
+        ALREADY_INVITED,
+        DUPLICATE,
+        INVALID
+    }
+
+    public enum EmailStatus {
+        QUEUED,
+        NOT_QUEUED
+    }
+}
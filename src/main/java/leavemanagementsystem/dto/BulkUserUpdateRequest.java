@@ -0,0 +1,30 @@
+package leavemanagementsystem.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import leavemanagementsystem.model.Role;
+
+import java.util.List;
+
+/**
+ * Changes applied to every listed user. Fields left null are not changed.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUserUpdateRequest {
+    @NotEmpty(message = "At least one user id is required")
+    @Size(max = 1000, message = "At most 1000 users can be updated at once")
+    private List<Long> userIds;
+
+    private boolean approve;
+
+    private Role role;
+
+    private String department;
+}
@@ -0,0 +1,20 @@
+package leavemanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUserUpdateResponse {
+    private int requested;
+    private int updated;
+    private int approved;
+    private int approvalEmailsNotQueued;
+    private List<Long> notFound;
+}
@@ -15,4 +15,6 @@ public class DepartmentRequest {
     private String name;
     
     private String description;
+
+    private Long parentId;
 } 
\ No newline at end of file
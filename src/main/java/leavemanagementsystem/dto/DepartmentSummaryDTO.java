@@ -0,0 +1,35 @@
+package leavemanagementsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import leavemanagementsystem.util.DateFormats;
+
+import java.time.LocalDateTime;
+
+/**
+ * A department with aggregated counts of its approved members, instead of the member list itself.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DepartmentSummaryDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private Long parentId;
+    private long memberCount;
+    private long staffCount;
+    private long managerCount;
+    private long adminCount;
+    private long onLeaveCount;
+
+    @JsonFormat(pattern = DateFormats.DATE_TIME)
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = DateFormats.DATE_TIME)
+    private LocalDateTime updatedAt;
+}
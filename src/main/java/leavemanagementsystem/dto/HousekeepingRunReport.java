@@ -0,0 +1,32 @@
+package leavemanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HousekeepingRunReport {
+    private String trigger;
+    private LocalDateTime startedAt;
+    private long durationMillis;
+    private List<RuleResult> rules;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RuleResult {
+        private String rule;
+        private long affectedRows;
+        private int batches;
+        private boolean completed;
+        private String error;
+    }
+}
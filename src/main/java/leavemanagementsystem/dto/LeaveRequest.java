@@ -8,6 +8,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import leavemanagementsystem.model.LeaveType;
+import leavemanagementsystem.util.DateFormats;
 
 import java.time.LocalDate;
 
@@ -18,12 +19,12 @@ import java.time.LocalDate;
 public class LeaveRequest {
     @NotNull(message = "Start date is required")
     @FutureOrPresent(message = "Start date must be today or in the future")
-    @JsonFormat(pattern = "yyyy-MM-dd")
+    @JsonFormat(pattern = DateFormats.DATE)
     private LocalDate startDate;
 
     @NotNull(message = "End date is required")
     @FutureOrPresent(message = "End date must be today or in the future")
-    @JsonFormat(pattern = "yyyy-MM-dd")
+    @JsonFormat(pattern = DateFormats.DATE)
     private LocalDate endDate;
 
     @NotNull(message = "Leave type is required")
@@ -0,0 +1,21 @@
+package leavemanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProfilingRecordingDTO {
+    private long id;
+    private String preset;
+    private String state;
+    private LocalDateTime startedAt;
+    private long maxDurationSeconds;
+    private long sizeBytes;
+}
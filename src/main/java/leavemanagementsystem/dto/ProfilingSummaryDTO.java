@@ -0,0 +1,36 @@
+package leavemanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProfilingSummaryDTO {
+    private long recordingId;
+    private String preset;
+    private long events;
+    private List<HotSpot> hotMethods;
+    private List<HotSpot> allocationSites;
+    private List<HotSpot> contention;
+
+    /**
+     * One stack location. {@code total} is the number of samples for hot methods, the sampled bytes
+     * for allocation sites and the blocked nanoseconds for contention.
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class HotSpot {
+        private String frame;
+        private long count;
+        private long total;
+        private double percent;
+    }
+}
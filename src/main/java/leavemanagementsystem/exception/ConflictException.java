@@ -0,0 +1,9 @@
+package leavemanagementsystem.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends BaseException {
+    public ConflictException(String message) {
+        super(message, HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,43 @@
+package leavemanagementsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One row of the department closure table: {@code ancestorId} is {@code depth} levels above
+ * {@code descendantId}. Every department is also its own ancestor at depth 0, so a subtree is
+ * simply all rows of an ancestor. Rows are maintained with set-based statements in
+ * {@link leavemanagementsystem.repository.DepartmentClosureRepository}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(DepartmentClosure.Key.class)
+@Table(name = "department_closure", indexes = {
+        @Index(name = "idx_department_closure_descendant", columnList = "descendant_id, depth")
+})
+public class DepartmentClosure {
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,37 @@
+package leavemanagementsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on a named scheduled job. The node named in {@code owner} may run the job until
+ * {@code lockedUntil}, and extends the lease while the job is running. Once it lapses, any node may
+ * take it over. Rows are maintained with conditional statements in
+ * {@link leavemanagementsystem.repository.JobLeaseRepository}, using the database clock only.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import leavemanagementsystem.util.DateFormats;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -29,11 +30,11 @@ public class Leave {
     private User user;
 
     @Column(nullable = false)
-    @JsonFormat(pattern = "yyyy-MM-dd")
+    @JsonFormat(pattern = DateFormats.DATE)
     private LocalDate startDate;
 
     @Column(nullable = false)
-    @JsonFormat(pattern = "yyyy-MM-dd")
+    @JsonFormat(pattern = DateFormats.DATE)
     private LocalDate endDate;
 
     @Column(nullable = false)
@@ -57,18 +58,18 @@ public class Leave {
     private User respondedBy;
 
     @Column(name = "response_date")
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonFormat(pattern = DateFormats.DATE_TIME)
     private LocalDateTime responseDate;
 
     @Column(name = "comment")
     private String comment;
 
     @Column(name = "created_at")
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonFormat(pattern = DateFormats.DATE_TIME)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonFormat(pattern = DateFormats.DATE_TIME)
     private LocalDateTime updatedAt;
 
     @PrePersist
@@ -4,5 +4,6 @@ public enum LeaveStatus {
     PENDING,        // When leave request is initially submitted
     APPROVED,       // When manager approves the leave request
     REJECTED,       // When manager rejects the leave request
-    CANCELLED       // When employee cancels their leave request
+    CANCELLED,      // When employee cancels their leave request
+    EXPIRED         // When a pending request was not answered before its start date
 }
\ No newline at end of file
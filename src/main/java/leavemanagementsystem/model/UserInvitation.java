@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import leavemanagementsystem.util.DateFormats;
 
 import java.time.LocalDateTime;
 
@@ -28,7 +29,7 @@ public class UserInvitation {
     private String token;
     
     @Column(nullable = false)
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    @JsonFormat(pattern = DateFormats.TIMESTAMP)
     private LocalDateTime expiryDate;
     
     @Column(nullable = false)
@@ -50,11 +51,11 @@ public class UserInvitation {
     private String lastName;
 
     @Column(name = "created_at", updatable = false)
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    @JsonFormat(pattern = DateFormats.TIMESTAMP)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
-    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
+    @JsonFormat(pattern = DateFormats.TIMESTAMP)
     private LocalDateTime updatedAt;
 
     @PrePersist
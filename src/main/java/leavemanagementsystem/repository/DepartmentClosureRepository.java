@@ -0,0 +1,85 @@
+package leavemanagementsystem.repository;
+
+import leavemanagementsystem.model.DepartmentClosure;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Set-based maintenance of the department closure table. Each operation is a fixed number of
+ * statements, whatever the size of the subtree involved.
+ */
+public interface DepartmentClosureRepository extends JpaRepository<DepartmentClosure, DepartmentClosure.Key> {
+
+    /**
+     * Links a new department to itself and to every ancestor of its parent.
+     * Pass a null parent for a root department.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "department_closure"))
+    @Query(value = """
+            INSERT INTO department_closure (ancestor_id, descendant_id, depth)
+            SELECT :id, :id, 0
+            UNION ALL
+            SELECT c.ancestor_id, :id, c.depth + 1 FROM department_closure c WHERE c.descendant_id = CAST(:parentId AS bigint)
+            """, nativeQuery = true)
+    int insertDepartment(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    /**
+     * Removes the links between a subtree and the ancestors above its root, keeping the links inside it.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "department_closure"))
+    @Query(value = """
+            DELETE FROM department_closure
+            WHERE descendant_id IN (SELECT descendant_id FROM department_closure WHERE ancestor_id = :id)
+              AND ancestor_id NOT IN (SELECT descendant_id FROM department_closure WHERE ancestor_id = :id)
+            """, nativeQuery = true)
+    int detachSubtree(@Param("id") Long id);
+
+    /**
+     * Links every node of a detached subtree to the new parent and all of its ancestors.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "department_closure"))
+    @Query(value = """
+            INSERT INTO department_closure (ancestor_id, descendant_id, depth)
+            SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1
+            FROM department_closure above
+            CROSS JOIN department_closure below
+            WHERE above.descendant_id = :parentId AND below.ancestor_id = :id
+            """, nativeQuery = true)
+    int attachSubtree(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "department_closure"))
+    @Query(value = "DELETE FROM department_closure WHERE descendant_id = :id", nativeQuery = true)
+    int deleteDepartment(@Param("id") Long id);
+
+    /**
+     * Adds the self link of departments created before the hierarchy existed. They are all roots.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "department_closure"))
+    @Query(value = """
+            INSERT INTO department_closure (ancestor_id, descendant_id, depth)
+            SELECT d.id, d.id, 0 FROM departments d
+            WHERE NOT EXISTS (SELECT 1 FROM department_closure c WHERE c.descendant_id = d.id)
+            """, nativeQuery = true)
+    int insertMissingRoots();
+
+    @Query("SELECT COUNT(c) > 0 FROM DepartmentClosure c WHERE c.ancestorId = :ancestorId AND c.descendantId = :descendantId")
+    boolean isInSubtree(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+    /**
+     * Returns the ancestors of a department, nearest first, excluding the department itself.
+     */
+    @Query("SELECT c.ancestorId FROM DepartmentClosure c WHERE c.descendantId = :id AND c.depth > 0 ORDER BY c.depth")
+    List<Long> findAncestorIds(@Param("id") Long id);
+}
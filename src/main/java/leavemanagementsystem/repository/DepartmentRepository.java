@@ -1,11 +1,63 @@
 package leavemanagementsystem.repository;
 
+import leavemanagementsystem.dto.DepartmentSummaryDTO;
 import leavemanagementsystem.model.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+    /**
+     * Counts approved members per department, by role, and those on approved leave on {@code :today},
+     * in a single grouped query. The leave join can repeat a member, hence the distinct counts.
+     */
+    String SUMMARY_QUERY = "SELECT new leavemanagementsystem.dto.DepartmentSummaryDTO(" +
+            "d.id, d.name, d.description, p.id, " +
+            "COUNT(DISTINCT u.id), " +
+            "COUNT(DISTINCT CASE WHEN u.role = leavemanagementsystem.model.Role.STAFF THEN u.id END), " +
+            "COUNT(DISTINCT CASE WHEN u.role = leavemanagementsystem.model.Role.MANAGER THEN u.id END), " +
+            "COUNT(DISTINCT CASE WHEN u.role = leavemanagementsystem.model.Role.ADMIN THEN u.id END), " +
+            "COUNT(DISTINCT l.user.id), " +
+            "d.createdAt, d.updatedAt) " +
+            "FROM Department d " +
+            "LEFT JOIN d.parent p " +
+            "LEFT JOIN User u ON u.department = d AND u.status = leavemanagementsystem.model.UserStatus.APPROVED " +
+            "LEFT JOIN Leave l ON l.user = u AND l.status = leavemanagementsystem.model.LeaveStatus.APPROVED " +
+            "AND :today BETWEEN l.startDate AND l.endDate ";
+    String SUMMARY_GROUP_BY = " GROUP BY d.id, d.name, d.description, p.id, d.createdAt, d.updatedAt";
+
+    @Query(SUMMARY_QUERY + SUMMARY_GROUP_BY + " ORDER BY d.name")
+    List<DepartmentSummaryDTO> findAllSummaries(@Param("today") LocalDate today);
+
+    @Query(SUMMARY_QUERY + "WHERE d.id = :id" + SUMMARY_GROUP_BY)
+    Optional<DepartmentSummaryDTO> findSummaryById(@Param("id") Long id, @Param("today") LocalDate today);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Department> findByName(String name);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByName(String name);
+    boolean existsByParent_Id(Long parentId);
+
+    /**
+     * Locks a department that is about to move, together with its new parent and every ancestor of
+     * that parent, in id order. Two moves that could close a cycle between them always share one of
+     * these rows, so they run one after the other and the second sees the first one's closure rows.
+     */
+    @Query(value = """
+            SELECT d.id FROM departments d
+            WHERE d.id = :id
+               OR d.id IN (SELECT c.ancestor_id FROM department_closure c WHERE c.descendant_id = CAST(:parentId AS bigint))
+            ORDER BY d.id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockForMove(@Param("id") Long id, @Param("parentId") Long parentId);
 } 
\ No newline at end of file
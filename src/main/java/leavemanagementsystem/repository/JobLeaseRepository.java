@@ -0,0 +1,57 @@
+package leavemanagementsystem.repository;
+
+import leavemanagementsystem.model.JobLease;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Lease operations for {@link JobLease}. Each one is a single conditional statement committed on its
+ * own, so two nodes racing for the same job are serialized by the row lock and only one of them sees
+ * an affected row.
+ */
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Takes the lease if it does not exist yet or has lapsed. Returns 1 when acquired.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "job_leases"))
+    @Query(value = """
+            INSERT INTO job_leases (name, owner, locked_at, locked_until, heartbeat_at)
+            VALUES (:name, :owner, now(), now() + :leaseMillis * interval '1 millisecond', now())
+            ON CONFLICT (name) DO UPDATE
+            SET owner = EXCLUDED.owner, locked_at = EXCLUDED.locked_at,
+                locked_until = EXCLUDED.locked_until, heartbeat_at = EXCLUDED.heartbeat_at
+            WHERE job_leases.locked_until < now()
+            """, nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Extends a lease the owner still holds. Returns 0 when it has lapsed or was taken over.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "job_leases"))
+    @Query(value = """
+            UPDATE job_leases
+            SET locked_until = now() + :leaseMillis * interval '1 millisecond', heartbeat_at = now()
+            WHERE name = :name AND owner = :owner AND locked_until >= now()
+            """, nativeQuery = true)
+    int extend(@Param("name") String name, @Param("owner") String owner, @Param("leaseMillis") long leaseMillis);
+
+    /**
+     * Ends the lease early so that the next run does not wait for it to lapse.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "job_leases"))
+    @Query(value = "UPDATE job_leases SET locked_until = now() WHERE name = :name AND owner = :owner", nativeQuery = true)
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -4,18 +4,29 @@ import leavemanagementsystem.model.Leave;
 import leavemanagementsystem.model.LeaveStatus;
 import leavemanagementsystem.model.LeaveType;
 import leavemanagementsystem.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface LeaveRepository extends JpaRepository<Leave, Long> {
     List<Leave> findByUser(User user);
+    /**
+     * A user's leave history with the responding manager fetched in the same query, as the history
+     * is serialized with it.
+     */
+    @EntityGraph(attributePaths = "respondedBy")
     List<Leave> findByUserOrderByCreatedAtDesc(User user);
     List<Leave> findByUserAndLeaveTypeAndStatus(User user, LeaveType leaveType, LeaveStatus status);
     List<Leave> findByStatus(LeaveStatus status);
@@ -29,6 +40,31 @@ public interface LeaveRepository extends JpaRepository<Leave, Long> {
     @Query("SELECT l FROM Leave l WHERE l.user.department.id = :departmentId AND l.status = :status")
     List<Leave> findByUserDepartmentIdAndStatus(@Param("departmentId") Long departmentId, @Param("status") LeaveStatus status);
 
+    @Query("SELECT l FROM Leave l JOIN l.user u JOIN DepartmentClosure c ON c.descendantId = u.department.id " +
+           "WHERE c.ancestorId = :departmentId")
+    List<Leave> findByUserDepartmentSubtree(@Param("departmentId") Long departmentId);
+
+    @Query("SELECT l FROM Leave l JOIN l.user u JOIN DepartmentClosure c ON c.descendantId = u.department.id " +
+           "WHERE c.ancestorId = :departmentId AND l.status = :status")
+    List<Leave> findByUserDepartmentSubtreeAndStatus(@Param("departmentId") Long departmentId, @Param("status") LeaveStatus status);
+
+    /**
+     * Marks one batch of pending leaves that started before {@code cutoff} as expired.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leaves"))
+    @Query(value = "UPDATE leaves SET status = 'EXPIRED', updated_at = :now WHERE id IN " +
+            "(SELECT id FROM leaves WHERE status = 'PENDING' AND start_date < :cutoff ORDER BY id LIMIT :limit)", nativeQuery = true)
+    int expirePendingBatch(@Param("cutoff") LocalDate cutoff, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM Leave l WHERE l.user.id IN :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("UPDATE Leave l SET l.respondedBy = null WHERE l.respondedBy.id IN :userIds")
+    int clearRespondedByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
     @Query("SELECT l FROM Leave l WHERE l.user = :user AND l.leaveType = :leaveType AND l.status = :status AND YEAR(l.startDate) = :year")
     List<Leave> findByUserAndLeaveTypeAndStatusAndStartDateYear(@Param("user") User user, @Param("leaveType") LeaveType leaveType, @Param("status") LeaveStatus status, @Param("year") int year);
 } 
\ No newline at end of file
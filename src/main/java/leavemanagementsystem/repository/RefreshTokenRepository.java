@@ -0,0 +1,63 @@
+package leavemanagementsystem.repository;
+
+import leavemanagementsystem.model.RefreshToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * Marks the token as used if it is still usable. Returns 0 when it was already used or revoked.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.used = true WHERE t.id = :id AND t.used = false AND t.revoked = false AND t.expiresAt > :now")
+    int markUsed(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true, t.revokedAt = :now WHERE t.familyId = :familyId AND t.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT DISTINCT t.familyId FROM RefreshToken t WHERE t.userId = :userId AND t.revoked = false")
+    List<UUID> findActiveFamilyIdsByUserId(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true, t.revokedAt = :now WHERE t.userId = :userId AND t.revoked = false")
+    int revokeAllByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT DISTINCT t.familyId FROM RefreshToken t WHERE t.userId IN :userIds AND t.revoked = false")
+    List<UUID> findActiveFamilyIdsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true, t.revokedAt = :now WHERE t.userId IN :userIds AND t.revoked = false")
+    int revokeAllByUserIdIn(@Param("userIds") Collection<Long> userIds, @Param("now") LocalDateTime now);
+
+    @Query("SELECT DISTINCT t.familyId FROM RefreshToken t WHERE t.revoked = true AND t.revokedAt > :since")
+    List<UUID> findFamilyIdsRevokedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_tokens"))
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN " +
+            "(SELECT id FROM refresh_tokens WHERE expires_at < :now LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId IN :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,13 @@
+package leavemanagementsystem.repository;
+
+import leavemanagementsystem.model.UserInvitation;
+
+import java.util.List;
+
+public interface UserInvitationBatchRepository {
+
+    /**
+     * Inserts new invitations with a single JDBC batch. The ids are not read back.
+     */
+    void insertAll(List<UserInvitation> invitations);
+}
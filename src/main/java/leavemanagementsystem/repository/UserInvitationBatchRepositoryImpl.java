@@ -0,0 +1,60 @@
+package leavemanagementsystem.repository;
+
+import leavemanagementsystem.model.UserInvitation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate does not batch inserts of entities with IDENTITY ids, so bulk imports insert through
+ * JDBC. The statement is generated from {@link #COLUMNS}. Entity callbacks do not run, so the
+ * timestamps set by {@code @PrePersist} are stamped here, and the caller must set the token and
+ * expiry date.
+ */
+@RequiredArgsConstructor
+public class UserInvitationBatchRepositoryImpl implements UserInvitationBatchRepository {
+
+    private record Column(String name, Function<UserInvitation, Object> value) {
+    }
+
+    private static final List<Column> COLUMNS = List.of(
+            new Column("email", UserInvitation::getEmail),
+            new Column("first_name", UserInvitation::getFirstName),
+            new Column("last_name", UserInvitation::getLastName),
+            new Column("token", UserInvitation::getToken),
+            new Column("expiry_date", UserInvitation::getExpiryDate),
+            new Column("used", UserInvitation::isUsed),
+            new Column("role", invitation -> invitation.getRole().name()),
+            new Column("department_id", invitation -> invitation.getDepartment() != null ? invitation.getDepartment().getId() : null),
+            new Column("created_at", UserInvitation::getCreatedAt),
+            new Column("updated_at", UserInvitation::getUpdatedAt));
+
+    private static final String INSERT = "INSERT INTO user_invitations (" +
+            COLUMNS.stream().map(Column::name).collect(Collectors.joining(", ")) + ") VALUES (" +
+            COLUMNS.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertAll(List<UserInvitation> invitations) {
+        LocalDateTime now = LocalDateTime.now();
+        for (UserInvitation invitation : invitations) {
+            Objects.requireNonNull(invitation.getToken(), "Invitation token is required");
+            Objects.requireNonNull(invitation.getExpiryDate(), "Invitation expiry date is required");
+            invitation.setCreatedAt(now);
+            invitation.setUpdatedAt(now);
+        }
+        jdbcTemplate.batchUpdate(INSERT, invitations, invitations.size(), (ps, invitation) -> {
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                ps.setObject(i + 1, COLUMNS.get(i).value().apply(invitation));
+            }
+        });
+    }
+}
@@ -1,16 +1,33 @@
 package leavemanagementsystem.repository;
 
 import leavemanagementsystem.model.UserInvitation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserInvitationRepository extends JpaRepository<UserInvitation, Long> {
+public interface UserInvitationRepository extends JpaRepository<UserInvitation, Long>, UserInvitationBatchRepository {
     List<UserInvitation> findAllByOrderByCreatedAtDesc();
     Optional<UserInvitation> findByToken(String token);
     Optional<UserInvitation> findByEmailAndUsedFalse(String email);
     boolean existsByEmailAndUsedFalse(String email);
+
+    @Query("SELECT i.email FROM UserInvitation i WHERE i.used = false AND i.email IN :emails")
+    List<String> findActiveInvitationEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_invitations"))
+    @Query(value = "DELETE FROM user_invitations WHERE id IN " +
+            "(SELECT id FROM user_invitations WHERE used = false AND expiry_date < :cutoff ORDER BY id LIMIT :limit)", nativeQuery = true)
+    int deleteExpiredUnusedBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
 } 
\ No newline at end of file
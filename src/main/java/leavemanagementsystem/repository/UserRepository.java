@@ -1,19 +1,113 @@
 package leavemanagementsystem.repository;
 
+import leavemanagementsystem.dto.UserSummaryDTO;
+import leavemanagementsystem.model.Department;
 import leavemanagementsystem.model.Role;
 import leavemanagementsystem.model.User;
 import leavemanagementsystem.model.UserStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
     List<User> findByStatus(UserStatus status);
     List<User> findByStatusAndDepartmentId(UserStatus status, Long departmentId);
 
     List<User> findByDepartmentId(Long departmentId);
+
+    @Query("SELECT u FROM User u JOIN DepartmentClosure c ON c.descendantId = u.department.id WHERE c.ancestorId = :departmentId")
+    List<User> findByDepartmentSubtree(@Param("departmentId") Long departmentId);
     List<User> findByRoleIn(List<Role> roles);
-} 
\ No newline at end of file
+
+    @Query("SELECT u.email FROM User u WHERE u.role = :role AND u.status = :status AND u.department.id = :departmentId")
+    List<String> findEmailsByRoleAndStatusAndDepartmentId(@Param("role") Role role, @Param("status") UserStatus status, @Param("departmentId") Long departmentId);
+
+    @Query("SELECT new leavemanagementsystem.dto.UserSummaryDTO(u.id, u.firstName, u.lastName, u.email, d.name, u.role, u.status) " +
+           "FROM User u LEFT JOIN u.department d")
+    List<UserSummaryDTO> findAllSummaries();
+
+    @Query("SELECT new leavemanagementsystem.dto.UserSummaryDTO(u.id, u.firstName, u.lastName, u.email, d.name, u.role, u.status) " +
+           "FROM User u JOIN u.department d WHERE d.id = :departmentId ORDER BY u.lastName, u.firstName, u.id")
+    Slice<UserSummaryDTO> findSummariesByDepartmentId(@Param("departmentId") Long departmentId, Pageable pageable);
+
+    @Query("SELECT new leavemanagementsystem.dto.UserSummaryDTO(u.id, u.firstName, u.lastName, u.email, d.name, u.role, u.status) " +
+           "FROM User u LEFT JOIN u.department d WHERE u.id IN :ids")
+    List<UserSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new leavemanagementsystem.dto.UserSummaryDTO(u.id, u.firstName, u.lastName, u.email, d.name, u.role, u.status) " +
+           "FROM User u LEFT JOIN u.department d WHERE u.status = :status AND u.updatedAt < :cutoff ORDER BY u.id")
+    List<UserSummaryDTO> findSummariesByStatusUpdatedBefore(@Param("status") UserStatus status,
+                                                            @Param("cutoff") LocalDateTime cutoff,
+                                                            Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.status = :status, u.updatedAt = :now WHERE u.id IN :ids AND u.status <> :status")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") UserStatus status, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.role = :role, u.updatedAt = :now WHERE u.id IN :ids")
+    int updateRole(@Param("ids") Collection<Long> ids, @Param("role") Role role, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.department = :department, u.updatedAt = :now WHERE u.id IN :ids")
+    int updateDepartment(@Param("ids") Collection<Long> ids, @Param("department") Department department, @Param("now") LocalDateTime now);
+
+    @Query("SELECT new leavemanagementsystem.dto.UserSummaryDTO(u.id, u.firstName, u.lastName, u.email, d.name, u.role, u.status) " +
+           "FROM User u LEFT JOIN u.department d WHERE u.id = :id")
+    Optional<UserSummaryDTO> findSummaryById(@Param("id") Long id);
+
+    @Query("SELECT u.email FROM User u WHERE u.role = :role AND u.status = :status")
+    List<String> findEmailsByRoleAndStatus(@Param("role") Role role, @Param("status") UserStatus status);
+
+    /**
+     * Everything a login needs, in one round trip: the user's credentials and profile, the
+     * department name, and whether the email has an unused invitation. The row is returned even
+     * when no user exists, so the invitation flag is always available.
+     */
+    @Query(value = """
+            SELECT u.id AS "id", u.first_name AS "firstName", u.last_name AS "lastName", e.email AS "email",
+                   u.password AS "password", u.role AS "role", u.status AS "status",
+                   u.department_id AS "departmentId", d.name AS "departmentName",
+                   EXISTS (SELECT 1 FROM user_invitations i WHERE i.email = e.email AND i.used = false) AS "pendingInvitation"
+            FROM (SELECT CAST(:email AS varchar) AS email) e
+            LEFT JOIN users u ON u.email = e.email
+            LEFT JOIN departments d ON d.id = u.department_id
+            """, nativeQuery = true)
+    LoginView findLoginViewByEmail(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    interface LoginView {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+        String getPassword();
+        Role getRole();
+        UserStatus getStatus();
+        Long getDepartmentId();
+        String getDepartmentName();
+        boolean isPendingInvitation();
+    }
+}
@@ -0,0 +1,62 @@
+package leavemanagementsystem.security;
+
+import leavemanagementsystem.model.Role;
+import leavemanagementsystem.model.User;
+import leavemanagementsystem.model.UserStatus;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable principal put into the security context by {@link JwtAuthenticationFilter}.
+ * It is built either from the signed token claims or from the stored user, and carries
+ * no password.
+ */
+@Getter
+public class AuthenticatedPrincipal implements UserDetails {
+    private final Long id;
+    private final String email;
+    private final Role role;
+    private final UserStatus status;
+    private final Long departmentId;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedPrincipal(Long id, String email, Role role, UserStatus status, Long departmentId) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.status = status;
+        this.departmentId = departmentId;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    public static AuthenticatedPrincipal from(User user) {
+        // Reading the id of a lazy department proxy does not initialize it
+        Long departmentId = user.getDepartment() != null ? user.getDepartment().getId() : null;
+        return new AuthenticatedPrincipal(user.getId(), user.getEmail(), user.getRole(), user.getStatus(), departmentId);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return status == UserStatus.APPROVED;
+    }
+}
@@ -0,0 +1,102 @@
+package leavemanagementsystem.security;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import leavemanagementsystem.exception.ResourceNotFoundException;
+import leavemanagementsystem.exception.UnauthorizedException;
+import leavemanagementsystem.model.Role;
+import leavemanagementsystem.model.User;
+import leavemanagementsystem.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * The caller of the current request, shared by controllers and services.
+ * <p>
+ * Id, email, role and department come from the authenticated principal and need no query. The
+ * full {@link User} is loaded on first use and kept as a request attribute. The kept instance is
+ * only reused while it belongs to the current persistence context; otherwise it is loaded again,
+ * so that lazy associations such as the department can still be initialized.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUser {
+
+    static final String USER_ATTRIBUTE = CurrentUser.class.getName() + ".user";
+
+    private final UserRepository userRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Long getId() {
+        Object principal = principal();
+        return principal instanceof User user ? user.getId() : ((AuthenticatedPrincipal) principal).getId();
+    }
+
+    public String getEmail() {
+        Object principal = principal();
+        return principal instanceof User user ? user.getEmail() : ((AuthenticatedPrincipal) principal).getEmail();
+    }
+
+    public Role getRole() {
+        Object principal = principal();
+        return principal instanceof User user ? user.getRole() : ((AuthenticatedPrincipal) principal).getRole();
+    }
+
+    public Long getDepartmentId() {
+        Object principal = principal();
+        if (principal instanceof User user) {
+            return user.getDepartment() != null ? user.getDepartment().getId() : null;
+        }
+        return ((AuthenticatedPrincipal) principal).getDepartmentId();
+    }
+
+    public boolean hasAnyRole(Role... roles) {
+        Role role = getRole();
+        for (Role candidate : roles) {
+            if (candidate == role) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the caller's user entity, attached to the current persistence context when there is one.
+     */
+    public User getUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User user
+                && entityManager.contains(user)) {
+            return user;
+        }
+
+        User user = userRepository.findById(getId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (attributes != null) {
+            attributes.setAttribute(USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    /**
+     * Returns a reference to the caller for use as an association, without querying the database.
+     */
+    public User getReference() {
+        return userRepository.getReferenceById(getId());
+    }
+
+    private Object principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication != null ? authentication.getPrincipal() : null;
+        if (principal instanceof User || principal instanceof AuthenticatedPrincipal) {
+            return principal;
+        }
+        throw new UnauthorizedException("Authentication required");
+    }
+}
@@ -1,15 +1,21 @@
 package leavemanagementsystem.security;
 
+import io.jsonwebtoken.JwtException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import leavemanagementsystem.model.User;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,6 +30,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * When enabled every request loads the user from the database instead of trusting the token claims.
+     */
+    @Value("${application.security.jwt.strict-validation:false}")
+    private boolean strictValidation;
 
     @Override
     protected void doFilterInternal(
@@ -32,21 +47,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            Observation.createNotStarted("lms.security.jwt", observationRegistry)
+                    .contextualName("jwt authentication")
+                    .observe(() -> authenticate(request, authHeader.substring(7)));
         }
+        filterChain.doFilter(request, response);
+    }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+    private void authenticate(HttpServletRequest request, String jwt) {
+        final VerifiedToken token;
+        try {
+            // Signature and expiration are verified in this single parse
+            token = jwtService.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
+        }
+        // Refresh tokens are only accepted by the refresh endpoint, and logged-out sessions are rejected
+        if (token.isRefreshToken() || revocationList.isRevoked(token.getFamilyId())) {
+            return;
+        }
+        final String userEmail = token.getSubject();
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            UserDetails userDetails = resolvePrincipal(token, userEmail);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -58,6 +85,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
-        filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UserDetails resolvePrincipal(VerifiedToken token, String userEmail) {
+        if (strictValidation) {
+            return loadUser(userEmail);
+        }
+
+        AuthenticatedPrincipal cached = principalCache.get(userEmail);
+        if (cached != null) {
+            return cached;
+        }
+
+        AuthenticatedPrincipal principal;
+        if (token.hasUserClaims() && !principalCache.isStale(userEmail, token.getIssuedAt())) {
+            principal = token.toPrincipal();
+        } else {
+            // Token predates the claims or the user changed since it was issued
+            UserDetails user = loadUser(userEmail);
+            if (!(user instanceof User)) {
+                return user;
+            }
+            principal = AuthenticatedPrincipal.from((User) user);
+        }
+        principalCache.put(principal);
+        return principal;
+    }
+
+    private UserDetails loadUser(String userEmail) {
+        try {
+            return userDetailsService.loadUserByUsername(userEmail);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package leavemanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import leavemanagementsystem.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process login limiter keyed by account email and by client IP.
+ * <p>
+ * Every attempt reserves a slot before the password is verified: the lockout check and the count
+ * are updated together in one CAS, so concurrent requests cannot all pass the check before any of
+ * them is recorded. Attempts are counted in a sliding window approximated from the current and the
+ * previous fixed window. Once a key reaches its threshold, every further attempt doubles the
+ * lockout, up to a maximum. A successful login clears the account's count and gives the client's
+ * slot back; attempts that never reach the password check give both slots back. Giving back the
+ * attempt that reached a threshold also lifts the lockout it started. Keys are held in a
+ * size-bounded cache and dropped once they have been idle for two windows.
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int emailThreshold;
+    private final int ipThreshold;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Clock clock;
+
+    private final Cache<String, Attempts> byEmail;
+    private final Cache<String, Attempts> byIp;
+
+    @Autowired
+    public LoginThrottle(@Value("${application.security.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${application.security.login-throttle.window-seconds:300}") long windowSeconds,
+                         @Value("${application.security.login-throttle.email-threshold:5}") int emailThreshold,
+                         @Value("${application.security.login-throttle.ip-threshold:50}") int ipThreshold,
+                         @Value("${application.security.login-throttle.base-delay-ms:1000}") long baseDelayMillis,
+                         @Value("${application.security.login-throttle.max-delay-ms:900000}") long maxDelayMillis,
+                         @Value("${application.security.login-throttle.max-entries:100000}") long maxEntries) {
+        this(enabled, windowSeconds, emailThreshold, ipThreshold, baseDelayMillis, maxDelayMillis, maxEntries, Clock.systemUTC());
+    }
+
+    LoginThrottle(boolean enabled, long windowSeconds, int emailThreshold, int ipThreshold,
+                  long baseDelayMillis, long maxDelayMillis, long maxEntries, Clock clock) {
+        this.enabled = enabled;
+        this.windowMillis = Duration.ofSeconds(windowSeconds).toMillis();
+        this.emailThreshold = emailThreshold;
+        this.ipThreshold = ipThreshold;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.clock = clock;
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofMillis(windowMillis * 2 + maxDelayMillis))
+                .build();
+        this.byIp = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofMillis(windowMillis * 2 + maxDelayMillis))
+                .build();
+    }
+
+    /**
+     * Reserves an attempt for the account and the client, or rejects it when either is locked out.
+     * A reserved attempt counts as a failure unless {@link #recordSuccess} or {@link #release} is
+     * called for it.
+     *
+     * @throws TooManyRequestsException with the number of seconds to wait
+     */
+    public void reserve(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.millis();
+        String key = normalize(email);
+        long waitMillis = key != null ? byEmail.get(key, k -> new Attempts()).reserve(now, emailThreshold) : 0;
+        if (waitMillis == 0 && clientIp != null) {
+            waitMillis = byIp.get(clientIp, k -> new Attempts()).reserve(now, ipThreshold);
+            if (waitMillis > 0 && key != null) {
+                // The client is locked out, so the account's slot was not used
+                release(byEmail, key, now, emailThreshold);
+            }
+        }
+        if (waitMillis > 0) {
+            throw new TooManyRequestsException("Too many login attempts. Please try again later.",
+                    Math.max(1, (waitMillis + 999) / 1000));
+        }
+    }
+
+    /**
+     * Clears the account's attempts after a successful login and gives the client's slot back. The
+     * client's earlier failures are kept, so that one valid account cannot be used to reset a
+     * credential-stuffing run.
+     */
+    public void recordSuccess(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        if (email != null) {
+            byEmail.invalidate(normalize(email));
+        }
+        release(byIp, clientIp, clock.millis(), ipThreshold);
+    }
+
+    /**
+     * Gives back a reserved attempt that ended before the password was checked.
+     */
+    public void release(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.millis();
+        release(byEmail, normalize(email), now, emailThreshold);
+        release(byIp, clientIp, now, ipThreshold);
+    }
+
+    private static void release(Cache<String, Attempts> cache, String key, long now, int threshold) {
+        if (key == null) {
+            return;
+        }
+        Attempts attempts = cache.getIfPresent(key);
+        if (attempts != null) {
+            attempts.release(now, threshold);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param unblockedUntil the lockout that was in force before the last attempt that reached the
+     *                       threshold, restored when that attempt is given back
+     */
+    private record State(long window, int previousCount, int currentCount, long blockedUntil, long unblockedUntil) {
+    }
+
+    private final class Attempts {
+        private final AtomicReference<State> state = new AtomicReference<>(new State(0, 0, 0, 0, 0));
+
+        /**
+         * @return 0 when the attempt was counted, otherwise the milliseconds left in the lockout
+         */
+        long reserve(long now, int threshold) {
+            long window = now / windowMillis;
+            while (true) {
+                State current = state.get();
+                if (now < current.blockedUntil()) {
+                    return current.blockedUntil() - now;
+                }
+                State rolled = roll(current, window);
+                int currentCount = rolled.currentCount() + 1;
+                int attempts = attempts(rolled.previousCount(), currentCount, now);
+                long blockedUntil = current.blockedUntil();
+                long unblockedUntil = current.unblockedUntil();
+                if (attempts >= threshold) {
+                    int excess = Math.min(30, attempts - threshold);
+                    unblockedUntil = blockedUntil;
+                    blockedUntil = now + Math.min(maxDelayMillis, baseDelayMillis << excess);
+                }
+                State next = new State(window, rolled.previousCount(), currentCount, blockedUntil, unblockedUntil);
+                if (state.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Takes back one attempt of the current window. When that leaves the key below the threshold,
+         * the lockout started by the attempt that reached it is lifted; earlier lockouts are kept.
+         */
+        void release(long now, int threshold) {
+            long window = now / windowMillis;
+            while (true) {
+                State current = state.get();
+                if (current.window() != window || current.currentCount() == 0) {
+                    return;
+                }
+                int currentCount = current.currentCount() - 1;
+                long blockedUntil = attempts(current.previousCount(), currentCount, now) < threshold
+                        ? current.unblockedUntil()
+                        : current.blockedUntil();
+                State next = new State(window, current.previousCount(), currentCount, blockedUntil, current.unblockedUntil());
+                if (state.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        private int attempts(int previousCount, int currentCount, long now) {
+            double elapsed = (double) (now % windowMillis) / windowMillis;
+            return (int) (previousCount * (1 - elapsed)) + currentCount;
+        }
+
+        private State roll(State current, long window) {
+            if (current.window() == window) {
+                return current;
+            }
+            int previousCount = window == current.window() + 1 ? current.currentCount() : 0;
+            return new State(window, previousCount, 0, current.blockedUntil(), current.unblockedUntil());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package leavemanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import leavemanagementsystem.service.CacheInvalidationBus;
+import leavemanagementsystem.service.ClusterCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded, short-lived cache of authenticated principals keyed by email.
+ * <p>
+ * Invalidating a user also records the time of the change; access tokens issued before
+ * that moment no longer get the claim-based fast path and are checked against the database
+ * until they expire. Invalidations are sent to the other nodes; when some may have been missed,
+ * every token issued so far loses the fast path.
+ * <p>
+ * Change records are never evicted for size, since a dropped record would make old tokens trusted
+ * again. They expire with the tokens they cover; when a change would take them past their capacity,
+ * every token issued so far loses the fast path instead and the records are cleared.
+ */
+@Component
+public class PrincipalCache implements ClusterCache {
+
+    private final CacheInvalidationBus invalidationBus;
+    private final Cache<String, AuthenticatedPrincipal> principals;
+    private final Cache<String, Long> invalidatedAt;
+    private final long maxInvalidations;
+    private volatile long flushedAt;
+
+    public PrincipalCache(CacheInvalidationBus invalidationBus,
+                          @Value("${application.security.jwt.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${application.security.jwt.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${application.security.jwt.principal-cache.max-invalidations:100000}") long maxInvalidations,
+                          @Value("${application.security.jwt.expiration}") long jwtExpiration) {
+        this.invalidationBus = invalidationBus;
+        this.maxInvalidations = maxInvalidations;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jwtExpiration))
+                .build();
+    }
+
+    public AuthenticatedPrincipal get(String email) {
+        return principals.getIfPresent(email);
+    }
+
+    public void put(AuthenticatedPrincipal principal) {
+        principals.put(principal.getEmail(), principal);
+    }
+
+    /**
+     * Returns true when the user changed after the token was issued, so its claims may be stale.
+     */
+    public boolean isStale(String email, long issuedAtMillis) {
+        if (issuedAtMillis <= flushedAt) {
+            return true;
+        }
+        Long changedAt = invalidatedAt.getIfPresent(email);
+        return changedAt != null && issuedAtMillis <= changedAt;
+    }
+
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        invalidateAll(List.of(email));
+    }
+
+    /**
+     * Invalidates many users at once, e.g. after a bulk update.
+     */
+    public void invalidateAll(Collection<String> emails) {
+        Set<String> changed = new HashSet<>();
+        for (String email : emails) {
+            if (email != null) {
+                changed.add(email);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        if (exceedsCapacity(changed.size())) {
+            flushLocal();
+            invalidationBus.publish(getCacheName(), CacheInvalidationBus.FLUSH_ALL);
+            return;
+        }
+        evictLocal(changed);
+        invalidationBus.publishAll(getCacheName(), changed);
+    }
+
+    @Override
+    public String getCacheName() {
+        return "principals";
+    }
+
+    @Override
+    public void evictLocal(String email) {
+        evictLocal(List.of(email));
+    }
+
+    @Override
+    public void evictLocal(Collection<String> emails) {
+        if (exceedsCapacity(emails.size())) {
+            flushLocal();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Long> changes = new HashMap<>();
+        emails.forEach(email -> changes.put(email, now));
+        invalidatedAt.putAll(changes);
+        principals.invalidateAll(changes.keySet());
+    }
+
+    /**
+     * Makes every token issued so far stale. The change records all predate it and are dropped.
+     */
+    @Override
+    public void flushLocal() {
+        flushedAt = System.currentTimeMillis();
+        invalidatedAt.invalidateAll();
+        principals.invalidateAll();
+    }
+
+    private boolean exceedsCapacity(int additional) {
+        return invalidatedAt.estimatedSize() + additional > maxInvalidations;
+    }
+}
@@ -0,0 +1,117 @@
+package leavemanagementsystem.security;
+
+import leavemanagementsystem.repository.RefreshTokenRepository;
+import leavemanagementsystem.service.CacheInvalidationBus;
+import leavemanagementsystem.service.ClusterCache;
+import leavemanagementsystem.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory list of revoked token families, checked for every authenticated request.
+ * <p>
+ * A Bloom filter answers the common "not revoked" case without allocating; only possible hits
+ * are confirmed against the exact set. Families only need to be remembered for as long as an
+ * access token issued for them can still be valid, so the set is pruned and the filter rebuilt
+ * periodically from the database. Revocations are sent to the other nodes right away, so they do
+ * not have to wait for the next reload.
+ */
+@Slf4j
+@Component
+public class TokenRevocationList implements ClusterCache {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final long accessTokenExpiration;
+    private final int expectedRevocations;
+
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(RefreshTokenRepository refreshTokenRepository,
+                               CacheInvalidationBus invalidationBus,
+                               @Value("${application.security.jwt.expiration}") long accessTokenExpiration,
+                               @Value("${application.security.jwt.revocation.expected-entries:10000}") int expectedRevocations) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.invalidationBus = invalidationBus;
+        this.accessTokenExpiration = accessTokenExpiration;
+        this.expectedRevocations = expectedRevocations;
+        this.filter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+    }
+
+    public boolean isRevoked(String familyId) {
+        if (familyId == null || !filter.mightContain(familyId)) {
+            return false;
+        }
+        return revokedAt.containsKey(familyId);
+    }
+
+    public void revoke(String familyId) {
+        evictLocal(familyId);
+        invalidationBus.publish(getCacheName(), familyId);
+    }
+
+    @Override
+    public String getCacheName() {
+        return "token-revocations";
+    }
+
+    /**
+     * Records a family revoked on another node.
+     */
+    @Override
+    public void evictLocal(String familyId) {
+        synchronized (lock) {
+            revokedAt.put(familyId, System.currentTimeMillis());
+            filter.add(familyId);
+        }
+    }
+
+    @Override
+    public void flushLocal() {
+        refresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Reloads recent revocations, forgets the ones whose access tokens have all expired
+     * and rebuilds the filter.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwt.revocation.refresh-interval-ms:60000}",
+            initialDelayString = "${application.security.jwt.revocation.refresh-interval-ms:60000}")
+    public void refresh() {
+        long cutoff = System.currentTimeMillis() - accessTokenExpiration;
+        LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(accessTokenExpiration));
+        long loadedAt = System.currentTimeMillis();
+
+        var persisted = refreshTokenRepository.findFamilyIdsRevokedSince(since);
+
+        synchronized (lock) {
+            revokedAt.values().removeIf(time -> time < cutoff);
+            for (UUID familyId : persisted) {
+                revokedAt.putIfAbsent(familyId.toString(), loadedAt);
+            }
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revokedAt.size() * 2), FALSE_POSITIVE_RATE);
+            revokedAt.keySet().forEach(rebuilt::add);
+            filter = rebuilt;
+        }
+        log.debug("Token revocation list refreshed with {} families", revokedAt.size());
+    }
+}
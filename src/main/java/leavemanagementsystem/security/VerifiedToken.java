@@ -0,0 +1,76 @@
+package leavemanagementsystem.security;
+
+import io.jsonwebtoken.Claims;
+import leavemanagementsystem.model.Role;
+import leavemanagementsystem.model.UserStatus;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Immutable result of verifying a token once: the signature and expiration have been
+ * checked, and the claims the application needs are already extracted.
+ */
+@Getter
+public final class VerifiedToken {
+    private final String subject;
+    private final Long userId;
+    private final Role role;
+    private final UserStatus status;
+    private final Long departmentId;
+    private final long issuedAt;
+    private final long expiresAt;
+    private final String tokenId;
+    private final String familyId;
+    private final String type;
+
+    private VerifiedToken(String subject, Long userId, Role role, UserStatus status, Long departmentId,
+                          long issuedAt, long expiresAt, String tokenId, String familyId, String type) {
+        this.subject = subject;
+        this.userId = userId;
+        this.role = role;
+        this.status = status;
+        this.departmentId = departmentId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.tokenId = tokenId;
+        this.familyId = familyId;
+        this.type = type;
+    }
+
+    static VerifiedToken from(Claims claims) {
+        Object userId = claims.get(JwtService.CLAIM_USER_ID);
+        Object departmentId = claims.get(JwtService.CLAIM_DEPARTMENT_ID);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        String status = claims.get(JwtService.CLAIM_STATUS, String.class);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId instanceof Number ? ((Number) userId).longValue() : null,
+                role != null ? Role.valueOf(role) : null,
+                status != null ? UserStatus.valueOf(status) : null,
+                departmentId instanceof Number ? ((Number) departmentId).longValue() : null,
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE,
+                claims.getId(),
+                claims.get(JwtService.CLAIM_FAMILY_ID, String.class),
+                claims.get(JwtService.CLAIM_TOKEN_TYPE, String.class)
+        );
+    }
+
+    /**
+     * Returns true when the token carries the user claims needed to authenticate without the database.
+     */
+    public boolean hasUserClaims() {
+        return userId != null && role != null && status != null;
+    }
+
+    public boolean isRefreshToken() {
+        return JwtService.TOKEN_TYPE_REFRESH.equals(type);
+    }
+
+    public AuthenticatedPrincipal toPrincipal() {
+        return new AuthenticatedPrincipal(userId, subject, role, status, departmentId);
+    }
+}
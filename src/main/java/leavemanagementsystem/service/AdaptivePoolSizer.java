@@ -0,0 +1,127 @@
+package leavemanagementsystem.service;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optionally adjusts the maximum size of the primary connection pool within configured bounds.
+ * <p>
+ * Every interval it looks at the average time callers waited for a connection, the number of
+ * threads still waiting, and the round trip of a trivial query. The pool grows by one step when
+ * callers wait too long and the database answers quickly. It shrinks when the database is slow,
+ * because more connections would only add to its load, or when it has stayed mostly idle for
+ * several intervals.
+ */
+@Slf4j
+@Service
+public class AdaptivePoolSizer {
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int minSize;
+    private final int maxSize;
+    private final int step;
+    private final double targetWaitMillis;
+    private final double maxDbLatencyMillis;
+    private final int shrinkAfterIntervals;
+
+    private long lastCount;
+    private double lastTotalMillis;
+    private int idleIntervals;
+
+    public AdaptivePoolSizer(HikariDataSource primaryDataSource,
+                             MeterRegistry meterRegistry,
+                             @Value("${application.datasource.adaptive.enabled:false}") boolean enabled,
+                             @Value("${application.datasource.adaptive.min-size:5}") int minSize,
+                             @Value("${application.datasource.adaptive.max-size:40}") int maxSize,
+                             @Value("${application.datasource.adaptive.step:2}") int step,
+                             @Value("${application.datasource.adaptive.target-wait-ms:20}") double targetWaitMillis,
+                             @Value("${application.datasource.adaptive.max-db-latency-ms:50}") double maxDbLatencyMillis,
+                             @Value("${application.datasource.adaptive.shrink-after-intervals:4}") int shrinkAfterIntervals) {
+        this.dataSource = primaryDataSource;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.step = step;
+        this.targetWaitMillis = targetWaitMillis;
+        this.maxDbLatencyMillis = maxDbLatencyMillis;
+        this.shrinkAfterIntervals = shrinkAfterIntervals;
+        Gauge.builder("lms.datasource.pool.max-size", dataSource, HikariDataSource::getMaximumPoolSize)
+                .tag("pool", "primary")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.datasource.adaptive.interval-ms:15000}",
+            initialDelayString = "${application.datasource.adaptive.interval-ms:15000}")
+    public void adjust() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        Timer acquire = meterRegistry.find("lms.datasource.acquire").tag("pool", "primary").timer();
+        if (!enabled || pool == null || acquire == null) {
+            return;
+        }
+
+        long count = acquire.count();
+        double totalMillis = acquire.totalTime(TimeUnit.MILLISECONDS);
+        double averageWait = count > lastCount ? (totalMillis - lastTotalMillis) / (count - lastCount) : 0;
+        lastCount = count;
+        lastTotalMillis = totalMillis;
+
+        int waiting = pool.getThreadsAwaitingConnection();
+        int active = pool.getActiveConnections();
+        double dbLatency = probeLatency();
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        int current = config.getMaximumPoolSize();
+
+        int target = current;
+        if (dbLatency < 0 || dbLatency > maxDbLatencyMillis) {
+            target = Math.max(minSize, current - step);
+            idleIntervals = 0;
+        } else if (averageWait > targetWaitMillis || waiting > 0) {
+            target = Math.min(maxSize, current + step);
+            idleIntervals = 0;
+        } else if (active < current / 2 && ++idleIntervals >= shrinkAfterIntervals) {
+            target = Math.max(minSize, current - step);
+            idleIntervals = 0;
+        }
+
+        if (target != current) {
+            if (config.getMinimumIdle() > target) {
+                config.setMinimumIdle(target);
+            }
+            config.setMaximumPoolSize(target);
+            log.info("Resized primary pool from {} to {} (avg wait {} ms, waiting {}, active {}, db latency {} ms)",
+                    current, target, String.format("%.1f", averageWait), waiting, active, String.format("%.1f", dbLatency));
+        }
+    }
+
+    /**
+     * Returns the round trip of a trivial query in milliseconds, excluding the wait for the
+     * connection, or -1 when the database could not be reached.
+     */
+    private double probeLatency() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            long start = System.nanoTime();
+            statement.execute("SELECT 1");
+            return (System.nanoTime() - start) / 1_000_000.0;
+        } catch (SQLException e) {
+            log.warn("Connection pool latency probe failed", e);
+            return -1;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import leavemanagementsystem.model.LeaveStatus;
 import leavemanagementsystem.model.LeaveType;
 import leavemanagementsystem.model.User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -17,6 +18,7 @@ public class AnalyticsService {
     private final LeaveService leaveService;
     private final UserService userService;
 
+    @Transactional(readOnly = true)
     public AnalyticsResponse getAnalytics(Long userId) {
         AnalyticsResponse analyticsResponse = new AnalyticsResponse();
 
@@ -0,0 +1,178 @@
+package leavemanagementsystem.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import leavemanagementsystem.model.Role;
+import leavemanagementsystem.model.UserStatus;
+import leavemanagementsystem.repository.DepartmentClosureRepository;
+import leavemanagementsystem.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Resolves who has to approve a leave request.
+ * <p>
+ * Approved managers of the requester's department are the approvers; when a department
+ * has no manager the managers of the nearest parent department that has one are used, and
+ * when none is found (or the requester has no department) the approved admins are used instead.
+ * Email lists are kept in a small in-memory index keyed by department id and must be
+ * invalidated whenever a user's role, status or department changes; ancestor lists are
+ * invalidated whenever the hierarchy changes. Invalidations are also sent to the other nodes.
+ * Entries are loaded from the primary: they have no expiry, so a stale list read from a lagging
+ * replica right after an invalidation would be kept until the next change. Loads run outside the
+ * maps, and their result is dropped when an eviction happened meanwhile, as it may predate it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApproverDirectory implements ClusterCache {
+
+    private static final String ADMINS_KEY = "admins";
+    private static final String HIERARCHY_KEY = "hierarchy";
+
+    private static final String[] NO_EMAILS = new String[0];
+    private static final Long[] NO_IDS = new Long[0];
+
+    private final UserRepository userRepository;
+    private final DepartmentClosureRepository closureRepository;
+    private final CacheInvalidationBus invalidationBus;
+    // Not read-only, so that loads are routed to the primary
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<Long, String[]> managerEmailsByDepartment = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Long[]> ancestorsByDepartment = new ConcurrentHashMap<>();
+    private volatile String[] adminEmails;
+    // Incremented by every local eviction
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Returns the emails that should be notified about a leave request raised in the given department.
+     * The returned array is shared and must not be modified.
+     */
+    public String[] resolveApprovers(Long departmentId) {
+        if (departmentId != null) {
+            String[] managers = cached(managerEmailsByDepartment, departmentId, this::loadManagerEmails);
+            if (managers.length > 0) {
+                return managers;
+            }
+            for (Long ancestorId : cached(ancestorsByDepartment, departmentId, this::loadAncestorIds)) {
+                managers = cached(managerEmailsByDepartment, ancestorId, this::loadManagerEmails);
+                if (managers.length > 0) {
+                    return managers;
+                }
+            }
+        }
+        return getAdminEmails();
+    }
+
+    public void evictDepartment(Long departmentId) {
+        if (departmentId != null) {
+            evictLocal(departmentId.toString());
+            invalidationBus.publish(getCacheName(), departmentId.toString());
+        }
+    }
+
+    /**
+     * Drops the entries affected by a change to a single user.
+     *
+     * @param previousDepartmentId department the user belonged to before the change, may be null
+     * @param previousRole role the user had before the change, may be null
+     * @param departmentId department the user belongs to now, may be null
+     * @param role role the user has now, may be null
+     */
+    public void onUserChanged(Long previousDepartmentId, Role previousRole, Long departmentId, Role role) {
+        if (previousRole == Role.MANAGER || role == Role.MANAGER) {
+            evictDepartment(previousDepartmentId);
+            evictDepartment(departmentId);
+        }
+        if (previousRole == Role.ADMIN || role == Role.ADMIN) {
+            evictLocal(ADMINS_KEY);
+            invalidationBus.publish(getCacheName(), ADMINS_KEY);
+        }
+    }
+
+    /**
+     * Drops the cached ancestor lists after a department was moved or deleted.
+     */
+    public void evictHierarchy() {
+        evictLocal(HIERARCHY_KEY);
+        invalidationBus.publish(getCacheName(), HIERARCHY_KEY);
+    }
+
+    public void evictAll() {
+        flushLocal();
+        invalidationBus.publish(getCacheName(), CacheInvalidationBus.FLUSH_ALL);
+    }
+
+    @Override
+    public String getCacheName() {
+        return "approvers";
+    }
+
+    @Override
+    public void evictLocal(String key) {
+        evictions.incrementAndGet();
+        switch (key) {
+            case ADMINS_KEY -> adminEmails = null;
+            case HIERARCHY_KEY -> ancestorsByDepartment.clear();
+            default -> managerEmailsByDepartment.remove(Long.valueOf(key));
+        }
+    }
+
+    @Override
+    public void flushLocal() {
+        evictions.incrementAndGet();
+        managerEmailsByDepartment.clear();
+        ancestorsByDepartment.clear();
+        adminEmails = null;
+        log.debug("Approver directory cleared");
+    }
+
+    private String[] getAdminEmails() {
+        String[] admins = adminEmails;
+        if (admins == null) {
+            long generation = evictions.get();
+            admins = transactionTemplate.execute(status -> userRepository.findEmailsByRoleAndStatus(Role.ADMIN, UserStatus.APPROVED))
+                    .toArray(NO_EMAILS);
+            adminEmails = admins;
+            if (evictions.get() != generation) {
+                adminEmails = null;
+            }
+        }
+        return admins;
+    }
+
+    /**
+     * Returns the cached entry, or loads it without holding a map lock during the query. The loaded
+     * entry is stored first and removed again if an eviction ran since the load started, so an
+     * eviction racing with the store cannot leave it behind.
+     */
+    private <T> T cached(ConcurrentMap<Long, T> cache, Long key, Function<Long, T> loader) {
+        T value = cache.get(key);
+        if (value != null) {
+            return value;
+        }
+        long generation = evictions.get();
+        value = loader.apply(key);
+        T existing = cache.putIfAbsent(key, value);
+        if (evictions.get() != generation) {
+            cache.remove(key, value);
+        }
+        return existing != null ? existing : value;
+    }
+
+    private Long[] loadAncestorIds(Long departmentId) {
+        return transactionTemplate.execute(status -> closureRepository.findAncestorIds(departmentId)).toArray(NO_IDS);
+    }
+
+    private String[] loadManagerEmails(Long departmentId) {
+        return transactionTemplate.execute(status ->
+                        userRepository.findEmailsByRoleAndStatusAndDepartmentId(Role.MANAGER, UserStatus.APPROVED, departmentId))
+                .toArray(NO_EMAILS);
+    }
+}
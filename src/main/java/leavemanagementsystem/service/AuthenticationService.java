@@ -1,5 +1,6 @@
 package leavemanagementsystem.service;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import leavemanagementsystem.dto.AuthenticationRequest;
 import leavemanagementsystem.dto.AuthenticationResponse;
@@ -8,30 +9,32 @@ import leavemanagementsystem.dto.UserDataDTO;
 import leavemanagementsystem.exception.BadRequestException;
 import leavemanagementsystem.exception.ForbiddenException;
 import leavemanagementsystem.exception.UnauthorizedException;
+import leavemanagementsystem.model.Department;
 import leavemanagementsystem.model.Role;
 import leavemanagementsystem.model.User;
 import leavemanagementsystem.model.UserStatus;
-import leavemanagementsystem.repository.UserInvitationRepository;
 import leavemanagementsystem.repository.UserRepository;
 import leavemanagementsystem.security.JwtService;
+import leavemanagementsystem.security.LoginThrottle;
+import leavemanagementsystem.security.VerifiedToken;
 import leavemanagementsystem.util.ValidationUtils;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Service
+@Observed(name = "lms.service")
 @RequiredArgsConstructor
 public class AuthenticationService {
     private final UserRepository userRepository;
-    private final UserInvitationRepository invitationRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final EmailTemplateService emailTemplateService;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginThrottle loginThrottle;
+    private final UserDirectoryIndex userDirectoryIndex;
 
     @Value("${admin.email}")
     private String adminEmail;
@@ -52,12 +55,13 @@ public class AuthenticationService {
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .role(Role.STAFF) // Default role for new users
                 .status(UserStatus.PENDING) // Set status to PENDING
                 .build();
         
         userRepository.save(user);
+        userDirectoryIndex.put(user);
         
         // Send email to admin about new registration using template
         String adminSubject = "New User Registration";
@@ -84,59 +88,67 @@ public class AuthenticationService {
                 .build();
     }
 
-    public AuthenticationResponse authenticate(AuthenticationRequest request) {
+    public AuthenticationResponse authenticate(AuthenticationRequest request, String clientIp) {
         // Validate input
         ValidationUtils.validateEmail(request.getEmail());
         ValidationUtils.validatePassword(request.getPassword());
         
+        // Reject locked-out accounts and clients before doing any database or hashing work. The
+        // attempt is counted now and only given back once it turns out not to be a failure
+        loginThrottle.reserve(request.getEmail(), clientIp);
+        
+        // User, department name and pending-invitation flag in a single query
+        var login = userRepository.findLoginViewByEmail(request.getEmail());
+        
         // Check if there's an active invitation first
-        boolean hasActiveInvitation = invitationRepository.existsByEmailAndUsedFalse(request.getEmail());
-        if (hasActiveInvitation) {
+        if (login.isPendingInvitation()) {
+            loginThrottle.release(request.getEmail(), clientIp);
             throw new ForbiddenException("Please complete your registration by setting up your password using the invitation link sent to your email.");
         }
         
-        var user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
+        if (login.getId() == null) {
+            throw new UnauthorizedException("User not found");
+        }
         
         // Check if user has set their password (for invited users)
-        if (user.getPassword() == null || user.getPassword().isEmpty()) {
+        if (login.getPassword() == null || login.getPassword().isEmpty()) {
+            loginThrottle.release(request.getEmail(), clientIp);
             throw new ForbiddenException("Your account requires password setup. Please contact an administrator.");
         }
         
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail(),
-                            request.getPassword()
-                    )
-            );
-        } catch (BadCredentialsException e) {
+        // Verify against the hash already loaded, on the bounded hashing pool
+        if (!passwordHashingService.matches(request.getPassword(), login.getPassword())) {
             throw new UnauthorizedException("Invalid email or password");
         }
+        loginThrottle.recordSuccess(request.getEmail(), clientIp);
+        
+        // Re-encode hashes created with an older work factor
+        if (passwordHashingService.needsRehash(login.getPassword())) {
+            userRepository.updatePassword(login.getId(), passwordHashingService.encode(request.getPassword()));
+        }
         
         // Check if user is approved
-        if (user.getStatus() != UserStatus.APPROVED) {
+        if (login.getStatus() != UserStatus.APPROVED) {
             throw new ForbiddenException("Your account is not approved yet. Please wait for administrator approval.");
         }
         
-        var jwtToken = jwtService.generateToken(user);
-        var refreshToken = jwtService.generateRefreshToken(user);
+        var tokens = refreshTokenService.issueTokens(toUser(login));
         
         // Create UserDataDTO
         UserDataDTO userData = UserDataDTO.builder()
-                .id(user.getId())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .email(user.getEmail())
-                .department(user.getDepartment().getName())
-                .role(user.getRole())
-                .status(user.getStatus())
+                .id(login.getId())
+                .firstName(login.getFirstName())
+                .lastName(login.getLastName())
+                .email(login.getEmail())
+                .department(login.getDepartmentName())
+                .role(login.getRole())
+                .status(login.getStatus())
                 .build();
         
         return AuthenticationResponse.builder()
                 .user(userData)
-                .token(jwtToken)
-                .refreshToken(refreshToken)
+                .token(tokens.getAccessToken())
+                .refreshToken(tokens.getRefreshToken())
                 .build();
     }
     
@@ -146,60 +158,98 @@ public class AuthenticationService {
         }
         
         try {
-            // Extract username from refresh token
-            String email = jwtService.extractUsername(refreshToken);
+            // Verify signature and expiration and extract the username in a single parse
+            var verifiedToken = jwtService.verify(refreshToken);
+            String email = verifiedToken.getSubject();
             
             // Check if token is valid
             if (email == null) {
                 throw new UnauthorizedException("Invalid refresh token");
             }
             
-            // Get user from database
-            var user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new UnauthorizedException("User not found"));
+            // Consume the token; a second use of the same token revokes its whole family
+            var familyId = refreshTokenService.consume(verifiedToken);
             
-            // Check if token is valid for this user
-            if (!jwtService.isTokenValid(refreshToken, user)) {
-                throw new UnauthorizedException("Invalid refresh token");
+            // Get user and pending-invitation flag from database in one query
+            var login = userRepository.findLoginViewByEmail(email);
+            if (login.getId() == null) {
+                throw new UnauthorizedException("User not found");
             }
             
             // Check if user is approved
-            if (user.getStatus() != UserStatus.APPROVED) {
+            if (login.getStatus() != UserStatus.APPROVED) {
                 throw new ForbiddenException("Your account is not approved yet. Please wait for administrator approval.");
             }
             
             // Check if user has set their password (for invited users)
-            if (user.getPassword() == null || user.getPassword().isEmpty()) {
-                // Check if there's an active invitation
-                boolean hasActiveInvitation = invitationRepository.existsByEmailAndUsedFalse(user.getEmail());
-                if (hasActiveInvitation) {
+            if (login.getPassword() == null || login.getPassword().isEmpty()) {
+                if (login.isPendingInvitation()) {
                     throw new ForbiddenException("Please complete your registration by setting up your password using the invitation link sent to your email.");
                 } else {
                     throw new ForbiddenException("Your account requires password setup. Please contact an administrator.");
                 }
             }
             
-            // Generate new tokens
-            var newJwtToken = jwtService.generateToken(user);
-            var newRefreshToken = jwtService.generateRefreshToken(user);
+            // Generate the next tokens of the family
+            var tokens = refreshTokenService.issueTokens(toUser(login), familyId);
             
             // Create UserDataDTO
             UserDataDTO userData = UserDataDTO.builder()
-                    .id(user.getId())
-                    .firstName(user.getFirstName())
-                    .lastName(user.getLastName())
-                    .email(user.getEmail())
-                    .role(user.getRole())
-                    .status(user.getStatus())
+                    .id(login.getId())
+                    .firstName(login.getFirstName())
+                    .lastName(login.getLastName())
+                    .email(login.getEmail())
+                    .department(login.getDepartmentName())
+                    .role(login.getRole())
+                    .status(login.getStatus())
                     .build();
             
             return AuthenticationResponse.builder()
                     .user(userData)
-                    .token(newJwtToken)
-                    .refreshToken(newRefreshToken)
+                    .token(tokens.getAccessToken())
+                    .refreshToken(tokens.getRefreshToken())
                     .build();
         } catch (Exception e) {
             throw new UnauthorizedException("Invalid refresh token");
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Ends the session the refresh token belongs to. Access tokens issued for it stop being accepted as well.
+     */
+    public void logout(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw new BadRequestException("Refresh token is required");
+        }
+        
+        VerifiedToken token;
+        try {
+            token = jwtService.verify(refreshToken);
+        } catch (Exception e) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        
+        // An access token would otherwise let its bearer end the session without the refresh token
+        if (!token.isRefreshToken() || token.getFamilyId() == null) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        refreshTokenService.revokeFamily(UUID.fromString(token.getFamilyId()));
+    }
+
+    /**
+     * Detached user holding just what token issuing reads; it is never saved.
+     */
+    private User toUser(UserRepository.LoginView login) {
+        return User.builder()
+                .id(login.getId())
+                .firstName(login.getFirstName())
+                .lastName(login.getLastName())
+                .email(login.getEmail())
+                .role(login.getRole())
+                .status(login.getStatus())
+                .department(login.getDepartmentId() != null
+                        ? Department.builder().id(login.getDepartmentId()).name(login.getDepartmentName()).build()
+                        : null)
+                .build();
+    }
+}
@@ -0,0 +1,281 @@
+package leavemanagementsystem.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import leavemanagementsystem.dto.BulkInvitationReport;
+import leavemanagementsystem.dto.BulkInvitationRowResult;
+import leavemanagementsystem.dto.BulkInvitationRowResult.EmailStatus;
+import leavemanagementsystem.dto.BulkInvitationRowResult.Status;
+import leavemanagementsystem.exception.BadRequestException;
+import leavemanagementsystem.model.Department;
+import leavemanagementsystem.model.Role;
+import leavemanagementsystem.model.UserInvitation;
+import leavemanagementsystem.repository.DepartmentRepository;
+import leavemanagementsystem.repository.UserInvitationRepository;
+import leavemanagementsystem.repository.UserRepository;
+import leavemanagementsystem.util.CsvReader;
+import leavemanagementsystem.util.ValidationUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports invitations from a CSV file with the columns
+ * {@code firstName,lastName,email,role,department} (header required, department optional).
+ * <p>
+ * The file is streamed in chunks. For each chunk, existing users and active invitations are looked
+ * up with one query each, new invitations are inserted with a single JDBC batch in their own
+ * transaction, and the invitation emails are handed to the {@link EmailDispatcher}. The report has
+ * one entry per data row and is returned without waiting for the emails, which are reported as
+ * queued, or as not queued when the dispatcher's queue is full; the dispatcher logs the ones that
+ * fail.
+ * <p>
+ * Files with more than the allowed number of rows are rejected after a first pass that only counts
+ * the records, before any invitation is written.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkInvitationService {
+
+    private final UserRepository userRepository;
+    private final UserInvitationRepository invitationRepository;
+    private final DepartmentRepository departmentRepository;
+    private final EmailService emailService;
+    private final EmailDispatcher emailDispatcher;
+
+    @Value("${app.frontend-url}")
+    private String frontendUrl;
+
+    @Value("${application.invitations.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${application.invitations.bulk.max-rows:10000}")
+    private int maxRows;
+
+    private record Row(String firstName, String lastName, String email, Role role, Department department,
+                       BulkInvitationRowResult result) {
+    }
+
+    public BulkInvitationReport importInvitations(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("A non-empty CSV file is required");
+        }
+
+        if (countRows(file) > maxRows) {
+            throw new BadRequestException("The file has more than " + maxRows + " rows");
+        }
+
+        Map<String, Department> departments = departmentRepository.findAll().stream()
+                .collect(Collectors.toMap(d -> d.getName().toLowerCase(Locale.ROOT), Function.identity(), (a, b) -> a));
+        List<BulkInvitationRowResult> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            CsvReader csv = new CsvReader(reader);
+            Map<String, Integer> columns = readHeader(csv.readRecord());
+
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            List<String> record;
+            int rowNumber = 1;
+            while ((record = csv.readRecord()) != null) {
+                rowNumber++;
+                Row row = parseRow(rowNumber, record, columns, departments, seenEmails);
+                results.add(row.result());
+                if (row.result().getStatus() == Status.INVITED) {
+                    chunk.add(row);
+                }
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk);
+                    chunk.clear();
+                }
+            }
+            processChunk(chunk);
+        } catch (IOException e) {
+            throw new BadRequestException("The CSV file could not be read");
+        }
+
+        return buildReport(results);
+    }
+
+    /**
+     * Counts the data rows, stopping as soon as the limit is exceeded.
+     */
+    private int countRows(MultipartFile file) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            CsvReader csv = new CsvReader(reader);
+            readHeader(csv.readRecord());
+            int rows = 0;
+            while (rows <= maxRows && csv.readRecord() != null) {
+                rows++;
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new BadRequestException("The CSV file could not be read");
+        }
+    }
+
+    private Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new BadRequestException("The CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("firstname", "lastname", "email", "role")) {
+            if (!columns.containsKey(required)) {
+                throw new BadRequestException("Missing CSV column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private Row parseRow(int number, List<String> record, Map<String, Integer> columns,
+                         Map<String, Department> departments, Set<String> seenEmails) {
+        String firstName = field(record, columns, "firstname");
+        String lastName = field(record, columns, "lastname");
+        String email = field(record, columns, "email");
+        String roleName = field(record, columns, "role");
+        String departmentName = field(record, columns, "department");
+
+        BulkInvitationRowResult result = BulkInvitationRowResult.builder()
+                .row(number)
+                .email(email)
+                .status(Status.INVITED)
+                .build();
+
+        Role role = null;
+        Department department = null;
+        try {
+            ValidationUtils.validateName(firstName, "First name");
+            ValidationUtils.validateName(lastName, "Last name");
+            ValidationUtils.validateEmail(email);
+            role = parseRole(roleName);
+            if (departmentName != null && !departmentName.isEmpty()) {
+                department = departments.get(departmentName.toLowerCase(Locale.ROOT));
+                if (department == null) {
+                    throw new BadRequestException("Department not found with name: " + departmentName);
+                }
+            }
+        } catch (BadRequestException e) {
+            result.setStatus(Status.INVALID);
+            result.setMessage(e.getMessage());
+        }
+
+        if (result.getStatus() == Status.INVITED && !seenEmails.add(email.toLowerCase(Locale.ROOT))) {
+            result.setStatus(Status.DUPLICATE);
+            result.setMessage("Email appears more than once in the file");
+        }
+        return new Row(firstName, lastName, email, role, department, result);
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        return record.get(index).trim();
+    }
+
+    private static Role parseRole(String roleName) {
+        if (roleName == null || roleName.isEmpty()) {
+            throw new BadRequestException("Role cannot be empty");
+        }
+        try {
+            return Role.valueOf(roleName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown role: " + roleName);
+        }
+    }
+
+    /**
+     * Skips rows whose email is already registered or invited, inserts the rest in one batch and
+     * queues their emails once the batch is committed.
+     */
+    private void processChunk(List<Row> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<String> chunkEmails = chunk.stream().map(Row::email).toList();
+        Set<String> registered = new HashSet<>(userRepository.findExistingEmails(chunkEmails));
+        Set<String> invited = new HashSet<>(invitationRepository.findActiveInvitationEmails(chunkEmails));
+
+        List<Row> toInsert = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (registered.contains(row.email())) {
+                row.result().setStatus(Status.ALREADY_REGISTERED);
+                row.result().setMessage("User with this email already exists");
+            } else if (invited.contains(row.email())) {
+                row.result().setStatus(Status.ALREADY_INVITED);
+                row.result().setMessage("An active invitation already exists for this email");
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime expiryDate = LocalDateTime.now().plusDays(1);
+        List<UserInvitation> invitations = toInsert.stream()
+                .map(row -> UserInvitation.builder()
+                        .email(row.email())
+                        .firstName(row.firstName())
+                        .lastName(row.lastName())
+                        .token(InvitationService.generateSecureToken())
+                        .expiryDate(expiryDate)
+                        .role(row.role())
+                        .department(row.department())
+                        .build())
+                .toList();
+        invitationRepository.insertAll(invitations);
+
+        for (int i = 0; i < toInsert.size(); i++) {
+            UserInvitation invitation = invitations.get(i);
+            String invitationLink = frontendUrl + "/set-password/" + invitation.getToken();
+            BulkInvitationRowResult result = toInsert.get(i).result();
+            if (emailDispatcher.dispatch(invitation.getEmail(), () -> emailService.sendInvitationEmail(invitation, invitationLink))) {
+                result.setEmailStatus(EmailStatus.QUEUED);
+            } else {
+                result.setEmailStatus(EmailStatus.NOT_QUEUED);
+                result.setMessage("The email queue is full; the invitation email can be sent again by renewing it once it expires");
+            }
+        }
+        log.info("Bulk import created {} invitations", toInsert.size());
+    }
+
+    private static BulkInvitationReport buildReport(List<BulkInvitationRowResult> results) {
+        int invited = 0;
+        int invalid = 0;
+        for (BulkInvitationRowResult result : results) {
+            if (result.getStatus() == Status.INVITED) {
+                invited++;
+            } else if (result.getStatus() == Status.INVALID) {
+                invalid++;
+            }
+        }
+        return BulkInvitationReport.builder()
+                .total(results.size())
+                .invited(invited)
+                .skipped(results.size() - invited - invalid)
+                .invalid(invalid)
+                .rows(results)
+                .build();
+    }
+}
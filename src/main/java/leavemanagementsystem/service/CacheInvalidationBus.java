@@ -0,0 +1,289 @@
+package leavemanagementsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads cache evictions to the other nodes through Postgres {@code NOTIFY}.
+ * <p>
+ * Evictions made inside a transaction are collected and sent once it commits, so other nodes never
+ * reload data that is not visible yet. They are also applied to this node's caches again after the
+ * commit: a concurrent request may have reloaded the old row between the caller's local eviction and
+ * the commit. A message is {@code origin \n cache \n key \n key ...}, kept
+ * under the Postgres payload limit by splitting; the key {@value #FLUSH_ALL} clears the whole cache.
+ * Each node listens on a dedicated connection outside the pool. After that connection is lost and
+ * re-established, every cache is flushed because messages sent in between were missed.
+ */
+@Slf4j
+@Service
+public class CacheInvalidationBus {
+
+    public static final String FLUSH_ALL = "*";
+
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final long VALIDATE_INTERVAL_MILLIS = 30_000;
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ClusterCache> cacheProvider;
+    private final boolean enabled;
+    private final String channel;
+    private final int pollMillis;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String origin = UUID.randomUUID().toString().substring(0, 8);
+
+    private volatile Map<String, ClusterCache> caches = Map.of();
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listener;
+
+    public CacheInvalidationBus(DataSource dataSource,
+                                ObjectProvider<ClusterCache> cacheProvider,
+                                @Value("${application.cache.bus.enabled:true}") boolean enabled,
+                                @Value("${application.cache.bus.channel:lms_cache_invalidation}") String channel,
+                                @Value("${application.cache.bus.poll-ms:500}") int pollMillis,
+                                @Value("${spring.datasource.url}") String url,
+                                @Value("${spring.datasource.username}") String username,
+                                @Value("${spring.datasource.password}") String password) {
+        this.dataSource = dataSource;
+        this.cacheProvider = cacheProvider;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.pollMillis = pollMillis;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Tells the other nodes to evict a key, after the current transaction commits if there is one.
+     * At that point the key is also evicted from this node again.
+     */
+    public void publish(String cacheName, String key) {
+        if (key != null) {
+            publishAll(cacheName, Set.of(key));
+        }
+    }
+
+    public void publishAll(String cacheName, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (enabled) {
+                send(Map.of(cacheName, new LinkedHashSet<>(keys)));
+            }
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Set<String>> pending = (Map<String, Set<String>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, Set<String>> batch = new LinkedHashMap<>();
+            pending = batch;
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    batch.forEach((name, batchKeys) -> {
+                        ClusterCache cache = caches.get(name);
+                        if (cache != null) {
+                            try {
+                                apply(cache, batchKeys);
+                            } catch (RuntimeException e) {
+                                log.warn("Could not evict committed changes from cache {}", name, e);
+                            }
+                        }
+                    });
+                    if (enabled) {
+                        send(batch);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+                }
+            });
+        }
+        pending.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).addAll(keys);
+    }
+
+    private void send(Map<String, Set<String>> evictions) {
+        // A separate pooled connection: the committed transaction's connection must not be reused here
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (Map.Entry<String, Set<String>> entry : evictions.entrySet()) {
+                Set<String> keys = entry.getValue().contains(FLUSH_ALL) ? Set.of(FLUSH_ALL) : entry.getValue();
+                String header = origin + '\n' + entry.getKey();
+                StringBuilder payload = new StringBuilder(header);
+                for (String key : keys) {
+                    if (payload.length() > header.length()
+                            && utf8Length(payload) + utf8Length(key) + 1 > MAX_PAYLOAD_BYTES) {
+                        notify(statement, payload.toString());
+                        payload.setLength(header.length());
+                    }
+                    payload.append('\n').append(key);
+                }
+                notify(statement, payload.toString());
+            }
+        } catch (SQLException e) {
+            // Other nodes catch up through cache expiry and their periodic reloads
+            log.warn("Could not publish cache invalidations for {}", evictions.keySet(), e);
+        }
+    }
+
+    private void notify(PreparedStatement statement, String payload) throws SQLException {
+        statement.setString(1, channel);
+        statement.setString(2, payload);
+        statement.execute();
+    }
+
+    private static int utf8Length(CharSequence value) {
+        return value.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        caches = cacheProvider.orderedStream()
+                .collect(Collectors.toMap(ClusterCache::getCacheName, Function.identity()));
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private void listen() {
+        long backoff = 1000;
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnecting) {
+                    log.info("Cache invalidation listener reconnected, flushing local caches");
+                    flushAll();
+                }
+                backoff = 1000;
+                reconnecting = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                long validatedAt = System.currentTimeMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                    if (System.currentTimeMillis() - validatedAt > VALIDATE_INTERVAL_MILLIS) {
+                        if (!connection.isValid(5)) {
+                            throw new SQLException("Listen connection is no longer valid");
+                        }
+                        validatedAt = System.currentTimeMillis();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                reconnecting = true;
+                log.warn("Cache invalidation listener disconnected, retrying in {} ms", backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+            } finally {
+                listenConnection = null;
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        String[] parts = payload.split("\n");
+        if (parts.length < 3 || origin.equals(parts[0])) {
+            return;
+        }
+        ClusterCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            log.debug("Ignoring invalidation for unknown cache {}", parts[1]);
+            return;
+        }
+        apply(cache, Arrays.asList(parts).subList(2, parts.length));
+    }
+
+    private static void apply(ClusterCache cache, Collection<String> keys) {
+        try {
+            if (keys.contains(FLUSH_ALL)) {
+                cache.flushLocal();
+                return;
+            }
+            cache.evictLocal(keys);
+        } catch (RuntimeException e) {
+            log.warn("Could not apply invalidation for cache {}, flushing it", cache.getCacheName(), e);
+            cache.flushLocal();
+        }
+    }
+
+    private void flushAll() {
+        for (ClusterCache cache : caches.values()) {
+            try {
+                cache.flushLocal();
+            } catch (RuntimeException e) {
+                log.warn("Could not flush cache {}", cache.getCacheName(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        Connection connection = listenConnection;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Error closing the listen connection", e);
+            }
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+}
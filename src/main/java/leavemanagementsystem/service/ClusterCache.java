@@ -0,0 +1,35 @@
+package leavemanagementsystem.service;
+
+import java.util.Collection;
+
+/**
+ * An in-process cache whose entries have to be evicted on every node when the data behind them
+ * changes. Implementations publish their own evictions through the {@link CacheInvalidationBus}
+ * and receive the evictions published by other nodes through the methods below, which must only
+ * touch local state. The bus also calls them for this node's own evictions once the publishing
+ * transaction has committed.
+ */
+public interface ClusterCache {
+
+    /**
+     * Name that identifies this cache in invalidation messages; must be unique and stable across nodes.
+     */
+    String getCacheName();
+
+    /**
+     * Evicts one key after another node changed the underlying data.
+     */
+    void evictLocal(String key);
+
+    /**
+     * Evicts several keys. Caches that reload evicted entries override it to load them together.
+     */
+    default void evictLocal(Collection<String> keys) {
+        keys.forEach(this::evictLocal);
+    }
+
+    /**
+     * Evicts everything. Called when messages may have been missed, e.g. after reconnecting.
+     */
+    void flushLocal();
+}
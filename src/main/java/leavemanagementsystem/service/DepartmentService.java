@@ -1,5 +1,8 @@
 package leavemanagementsystem.service;
 
+import leavemanagementsystem.dto.DepartmentSummaryDTO;
+import leavemanagementsystem.dto.PageResponse;
+import leavemanagementsystem.dto.UserSummaryDTO;
 import leavemanagementsystem.model.Department;
 
 import java.util.List;
@@ -9,8 +12,13 @@ public interface DepartmentService {
     Department getDepartment(Long id);
     Department getDepartment(String departmentName);
     List<Department> getAllDepartments();
+    List<DepartmentSummaryDTO> getDepartmentSummaries();
+    DepartmentSummaryDTO getDepartmentSummary(Long id);
+    PageResponse<UserSummaryDTO> getDepartmentMembers(Long id, int page, int size);
     Department updateDepartment(Long id, Department department);
+    Department moveDepartment(Long id, Long parentId);
     void deleteDepartment(Long id);
     Department getDepartmentByName(String name);
     void ensureAdministrationDepartmentExists();
+    void ensureHierarchyInitialized();
 } 
\ No newline at end of file
@@ -0,0 +1,139 @@
+package leavemanagementsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends emails off the request thread with bounded concurrency and a global rate limit, so that
+ * bulk operations neither open unbounded SMTP connections nor exceed the provider's send rate.
+ * <p>
+ * The queue is bounded. When it is full the email is refused rather than sent on the submitting
+ * thread, so that a request never waits for SMTP or the rate limit; callers report refused emails.
+ * In virtual thread mode the workers are virtual threads; their number
+ * still bounds the SMTP concurrency. Sends are wrapped by the application's {@link TaskDecorator}, so
+ * they continue the trace of the request that queued them.
+ */
+@Slf4j
+@Service
+public class EmailDispatcher {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final TaskDecorator taskDecorator;
+    private final long intervalNanos;
+    private final AtomicLong nextSlot = new AtomicLong(System.nanoTime());
+
+    public EmailDispatcher(MeterRegistry meterRegistry,
+                           TaskDecorator taskDecorator,
+                           @Value("${application.email.dispatch.threads:8}") int threads,
+                           @Value("${application.email.dispatch.queue-capacity:1000}") int queueCapacity,
+                           @Value("${application.email.dispatch.rate-per-second:100}") double ratePerSecond,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.taskDecorator = taskDecorator;
+        this.intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0L;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("email-dispatch-", 1).factory()
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "email-dispatch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("lms.email.dispatch.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("lms.email.dispatch.rejected");
+    }
+
+    /**
+     * Queues an email send. Failed sends are logged.
+     *
+     * @return false when the queue is full and the email was not queued
+     */
+    public boolean dispatch(String recipient, Runnable send) {
+        try {
+            executor.execute(taskDecorator.decorate(() -> {
+                try {
+                    acquirePermit();
+                    send.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Email dispatch interrupted for: {}", recipient);
+                } catch (RuntimeException e) {
+                    log.error("Failed to send email to: {}", recipient, e);
+                }
+            }));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Email queue is full, not sending email to: {}", recipient);
+            return false;
+        }
+    }
+
+    /**
+     * Queues an email send once the current transaction commits, or right away outside a
+     * transaction. No mail goes out for a change that is rolled back, and the transaction does not
+     * keep its connection for the SMTP round trip.
+     */
+    public void dispatchAfterCommit(String recipient, Runnable send) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(recipient, send);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(recipient, send);
+            }
+        });
+    }
+
+    /**
+     * Reserves the next send slot and waits for it. Slots are spaced by the configured interval,
+     * and idle time does not accumulate into a burst.
+     */
+    private void acquirePermit() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long now;
+        long slot;
+        long previous;
+        do {
+            previous = nextSlot.get();
+            now = System.nanoTime();
+            slot = Math.max(previous, now);
+        } while (!nextSlot.compareAndSet(previous, slot + intervalNanos));
+
+        long waitNanos = slot - now;
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
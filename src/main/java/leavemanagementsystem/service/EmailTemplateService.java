@@ -1,18 +1,21 @@
 package leavemanagementsystem.service;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
+import leavemanagementsystem.util.DateFormats;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 @Service
 @RequiredArgsConstructor
 public class EmailTemplateService {
     private final TemplateEngine templateEngine;
+    private final ObservationRegistry observationRegistry;
     
     @Value("${app.frontend-url}")
     private String frontendUrl;
@@ -22,10 +25,10 @@ public class EmailTemplateService {
         context.setVariable("firstName", firstName);
         context.setVariable("lastName", lastName);
         context.setVariable("email", email);
-        context.setVariable("registrationDate", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        context.setVariable("registrationDate", LocalDateTime.now().format(DateFormats.DATE_TIME_FORMATTER));
         context.setVariable("approvalLink", frontendUrl + "/admin/users/pending");
         
-        return templateEngine.process("admin-notification", context);
+        return render("admin-notification", context);
     }
     
     public String processApprovalTemplate(String firstName, String lastName, String email, String departmentName) {
@@ -35,7 +38,7 @@ public class EmailTemplateService {
         context.setVariable("email", email);
         context.setVariable("departmentName", departmentName);
         
-        return templateEngine.process("approval", context);
+        return render("approval", context);
     }
     
     public String processRejectionTemplate(String firstName, String lastName, String email) {
@@ -44,6 +47,13 @@ public class EmailTemplateService {
         context.setVariable("lastName", lastName);
         context.setVariable("email", email);
         
-        return templateEngine.process("rejection", context);
+        return render("rejection", context);
     }
-} 
\ No newline at end of file
+
+    private String render(String template, Context context) {
+        return Observation.createNotStarted("lms.email.render", observationRegistry)
+                .contextualName("render " + template)
+                .lowCardinalityKeyValue("template", template)
+                .observe(() -> templateEngine.process(template, context));
+    }
+}
@@ -0,0 +1,166 @@
+package leavemanagementsystem.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import leavemanagementsystem.dto.CacheRegionStatsDTO;
+import leavemanagementsystem.model.Department;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the Hibernate second-level cache consistent across nodes and reports its hit ratios.
+ * <p>
+ * Only read-mostly entities that are changed exclusively through the entity manager are cached:
+ * <ul>
+ *   <li>{@link Department}: a few rows, read on every approval, invitation and login, changed only
+ *       by {@code DepartmentServiceImpl}, which calls {@link #evictDepartment} for every change. {@code findByName} and {@code existsByName} also use the
+ *       query cache.</li>
+ * </ul>
+ * Not cached: users (passwords, status and roles change through bulk and native updates, which
+ * would invalidate the whole region), leaves, invitations, refresh tokens and job leases (written
+ * more than read), and the department closure table (maintained with native SQL only). Leave types
+ * and roles are enums and need no cache.
+ * <p>
+ * The cache is local to each node. Changes to a cached entity are therefore published on the
+ * {@link CacheInvalidationBus}, and the other nodes evict the entity and their query results.
+ * Native modifying queries must declare the tables they touch with
+ * {@code HibernateHints.HINT_NATIVE_SPACES}; otherwise Hibernate clears every region after them.
+ * <p>
+ * Hit ratios are read from the statistics MXBeans that Caffeine registers for every region with
+ * {@code monitoring.statistics} enabled in {@code hibernate-cache.conf}, so Hibernate's own
+ * statistics collection can stay off in production.
+ */
+@Slf4j
+@Component
+public class EntityCacheService implements ClusterCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheInvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+
+    private static final Map<String, Class<?>> CACHED_ENTITIES = Map.of(
+            Department.class.getSimpleName(), Department.class);
+
+    public EntityCacheService(EntityManagerFactory entityManagerFactory,
+                              CacheInvalidationBus invalidationBus,
+                              MeterRegistry meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Publishes the {@code cache.gets} and {@code cache.puts} metrics of every monitored region.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerMetrics() {
+        CacheManager cacheManager = cacheManager();
+        for (String region : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            if (cache != null && statisticsMBean(region) != null) {
+                JCacheMetrics.monitor(meterRegistry, cache);
+            }
+        }
+    }
+
+    /**
+     * Evicts the department and the cached query results on every node once the current
+     * transaction commits.
+     */
+    public void evictDepartment(Long id) {
+        invalidationBus.publish(getCacheName(), Department.class.getSimpleName() + ":" + id);
+    }
+
+    @Override
+    public String getCacheName() {
+        return "entities";
+    }
+
+    @Override
+    public void evictLocal(String key) {
+        int separator = key.indexOf(':');
+        Class<?> type = CACHED_ENTITIES.get(key.substring(0, separator));
+        if (type != null) {
+            sessionFactory().getCache().evictEntityData(type, Long.valueOf(key.substring(separator + 1)));
+        }
+        sessionFactory().getCache().evictQueryRegions();
+    }
+
+    @Override
+    public void flushLocal() {
+        sessionFactory().getCache().evictAllRegions();
+    }
+
+    /**
+     * Returns hit and miss counts per monitored cache region, including the query results region.
+     */
+    public List<CacheRegionStatsDTO> getStatistics() {
+        CacheManager cacheManager = cacheManager();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+        for (String region : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            ObjectName mbean = statisticsMBean(region);
+            if (cache == null || mbean == null) {
+                continue;
+            }
+            try {
+                regions.add(toDto(region, (Long) server.getAttribute(mbean, "CacheHits"),
+                        (Long) server.getAttribute(mbean, "CacheMisses"), (Long) server.getAttribute(mbean, "CachePuts"),
+                        cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize()));
+            } catch (JMException e) {
+                throw new IllegalStateException("Could not read the statistics of cache region " + region, e);
+            }
+        }
+        return regions;
+    }
+
+    private static CacheRegionStatsDTO toDto(String region, long hits, long misses, long puts, long elements) {
+        long requests = hits + misses;
+        return CacheRegionStatsDTO.builder()
+                .region(region)
+                .hits(hits)
+                .misses(misses)
+                .puts(puts)
+                .hitRatio(requests == 0 ? 0 : (double) hits / requests)
+                .elementsInMemory(elements)
+                .build();
+    }
+
+    private static ObjectName statisticsMBean(String region) {
+        try {
+            return ManagementFactory.getPlatformMBeanServer()
+                    .queryNames(new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null)
+                    .stream()
+                    .findFirst()
+                    .orElse(null);
+        } catch (JMException e) {
+            throw new IllegalStateException("Invalid cache region name " + region, e);
+        }
+    }
+
+    private CacheManager cacheManager() {
+        return ((JCacheRegionFactory) sessionFactory().unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory())
+                .getCacheManager();
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
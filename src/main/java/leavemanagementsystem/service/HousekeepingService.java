@@ -0,0 +1,201 @@
+package leavemanagementsystem.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import leavemanagementsystem.dto.HousekeepingRunReport;
+import leavemanagementsystem.dto.HousekeepingRunReport.RuleResult;
+import leavemanagementsystem.dto.UserSummaryDTO;
+import leavemanagementsystem.exception.ConflictException;
+import leavemanagementsystem.model.UserStatus;
+import leavemanagementsystem.repository.LeaveRepository;
+import leavemanagementsystem.repository.RefreshTokenRepository;
+import leavemanagementsystem.repository.UserInvitationRepository;
+import leavemanagementsystem.repository.UserRepository;
+import leavemanagementsystem.security.PrincipalCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Removes or retires rows that are no longer useful: expired unused invitations, expired refresh
+ * tokens, pending leaves whose start date has passed and users that were rejected a long time ago.
+ * <p>
+ * Every rule works in batches of at most {@code batch-size} rows, each in its own short transaction,
+ * and stops when a batch comes back short or the per-run batch limit is reached. A negative retention
+ * disables a rule. Runs hold the {@value #JOB_NAME} lease, so only one node of the cluster works at a
+ * time. The reports of the last runs are kept in memory for the admin endpoint.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HousekeepingService {
+
+    static final String JOB_NAME = "housekeeping";
+
+    private static final int REPORT_HISTORY = 20;
+
+    private final UserInvitationRepository invitationRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final LeaveRepository leaveRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PrincipalCache principalCache;
+    private final UserDirectoryIndex userDirectoryIndex;
+    private final MeterRegistry meterRegistry;
+    private final JobCoordinator jobCoordinator;
+
+    @Value("${application.housekeeping.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.housekeeping.batch-size:500}")
+    private int batchSize;
+
+    @Value("${application.housekeeping.max-batches-per-rule:200}")
+    private int maxBatchesPerRule;
+
+    @Value("${application.housekeeping.pause-ms:50}")
+    private long pauseMillis;
+
+    @Value("${application.housekeeping.invitations.retention-days:7}")
+    private int invitationRetentionDays;
+
+    @Value("${application.housekeeping.pending-leaves.grace-days:0}")
+    private int pendingLeaveGraceDays;
+
+    @Value("${application.housekeeping.rejected-users.retention-days:90}")
+    private int rejectedUserRetentionDays;
+
+    private final Deque<HousekeepingRunReport> history = new ArrayDeque<>();
+
+    @Scheduled(cron = "${application.housekeeping.cron:0 0 2 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            jobCoordinator.runExclusively(JOB_NAME, () -> runRules("scheduled"));
+        }
+    }
+
+    /**
+     * Runs every rule once.
+     *
+     * @throws ConflictException if a run is already in progress on any node
+     */
+    public HousekeepingRunReport run(String trigger) {
+        AtomicReference<HousekeepingRunReport> report = new AtomicReference<>();
+        if (!jobCoordinator.runExclusively(JOB_NAME, () -> report.set(runRules(trigger)))) {
+            throw new ConflictException("Housekeeping is already running");
+        }
+        return report.get();
+    }
+
+    private HousekeepingRunReport runRules(String trigger) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        List<RuleResult> results = new ArrayList<>();
+
+        results.add(runRule("expired-invitations", invitationRetentionDays, () -> {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(invitationRetentionDays);
+            return invitationRepository.deleteExpiredUnusedBatch(cutoff, batchSize);
+        }));
+        results.add(runRule("expired-refresh-tokens", 0,
+                () -> refreshTokenRepository.deleteExpiredBatch(LocalDateTime.now(), batchSize)));
+        results.add(runRule("stale-pending-leaves", pendingLeaveGraceDays, () -> {
+            LocalDate cutoff = LocalDate.now().minusDays(pendingLeaveGraceDays);
+            return leaveRepository.expirePendingBatch(cutoff, LocalDateTime.now(), batchSize);
+        }));
+        results.add(runRule("rejected-users", rejectedUserRetentionDays, this::purgeRejectedUsersBatch));
+
+        HousekeepingRunReport report = HousekeepingRunReport.builder()
+                .trigger(trigger)
+                .startedAt(startedAt)
+                .durationMillis((System.nanoTime() - start) / 1_000_000)
+                .rules(results)
+                .build();
+        synchronized (history) {
+            history.addFirst(report);
+            while (history.size() > REPORT_HISTORY) {
+                history.removeLast();
+            }
+        }
+        log.info("Housekeeping ({}) finished in {} ms: {}", trigger, report.getDurationMillis(),
+                results.stream().map(r -> r.getRule() + "=" + r.getAffectedRows()).collect(Collectors.joining(", ")));
+        return report;
+    }
+
+    public List<HousekeepingRunReport> getRecentRuns() {
+        synchronized (history) {
+            return List.copyOf(history);
+        }
+    }
+
+    private RuleResult runRule(String rule, int retention, IntSupplier batch) {
+        RuleResult result = RuleResult.builder().rule(rule).completed(true).build();
+        if (retention < 0) {
+            return result;
+        }
+        try {
+            while (result.getBatches() < maxBatchesPerRule && jobCoordinator.holdsLease(JOB_NAME)) {
+                Integer affected = transactionTemplate.execute(status -> batch.getAsInt());
+                int rows = affected != null ? affected : 0;
+                result.setBatches(result.getBatches() + 1);
+                result.setAffectedRows(result.getAffectedRows() + rows);
+                if (rows < batchSize) {
+                    break;
+                }
+                pause();
+            }
+            result.setCompleted(result.getBatches() < maxBatchesPerRule && jobCoordinator.holdsLease(JOB_NAME));
+        } catch (RuntimeException e) {
+            log.error("Housekeeping rule {} failed", rule, e);
+            result.setCompleted(false);
+            result.setError(e.getMessage());
+        }
+        meterRegistry.counter("lms.housekeeping.rows", "rule", rule).increment(result.getAffectedRows());
+        return result;
+    }
+
+    /**
+     * Deletes one batch of users rejected before the retention cutoff together with their leaves and
+     * refresh tokens, and clears their name from leaves they responded to.
+     */
+    private int purgeRejectedUsersBatch() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(rejectedUserRetentionDays);
+        List<UserSummaryDTO> users = userRepository.findSummariesByStatusUpdatedBefore(
+                UserStatus.REJECTED, cutoff, PageRequest.of(0, batchSize));
+        if (users.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = users.stream().map(UserSummaryDTO::getId).toList();
+        leaveRepository.clearRespondedByUserIdIn(ids);
+        leaveRepository.deleteByUserIdIn(ids);
+        refreshTokenRepository.deleteByUserIdIn(ids);
+        userRepository.deleteByIdIn(ids);
+
+        principalCache.invalidateAll(users.stream().map(UserSummaryDTO::getEmail).toList());
+        ids.forEach(userDirectoryIndex::remove);
+        return ids.size();
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
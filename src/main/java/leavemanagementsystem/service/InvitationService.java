@@ -16,7 +16,6 @@ import leavemanagementsystem.repository.UserInvitationRepository;
 import leavemanagementsystem.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,11 +28,15 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class InvitationService {
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     private final UserInvitationRepository invitationRepository;
     private final UserRepository userRepository;
     private final DepartmentService departmentService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final EmailService emailService;
+    private final ApproverDirectory approverDirectory;
+    private final UserDirectoryIndex userDirectoryIndex;
     
     @Value("${app.frontend-url}")
     private String frontendUrl;
@@ -105,13 +108,16 @@ public class InvitationService {
                 .email(invitation.getEmail())
                 .firstName(invitation.getFirstName())
                 .lastName(invitation.getLastName())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .role(invitation.getRole())
                 .department(invitation.getDepartment())
                 .status(UserStatus.APPROVED)
                 .build();
         
         userRepository.save(user);
+        approverDirectory.onUserChanged(null, null,
+                user.getDepartment() != null ? user.getDepartment().getId() : null, user.getRole());
+        userDirectoryIndex.put(user);
         
         // Mark invitation as used
         invitation.setUsed(true);
@@ -146,10 +152,10 @@ public class InvitationService {
         log.info("Invitation token renewed for {}", request.getEmail());
     }
     
-    private String generateSecureToken() {
+    static String generateSecureToken() {
         // Generate a secure random token
         byte[] randomBytes = new byte[32];
-        new SecureRandom().nextBytes(randomBytes);
+        SECURE_RANDOM.nextBytes(randomBytes);
         return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
     }
 
@@ -0,0 +1,155 @@
+package leavemanagementsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import leavemanagementsystem.model.JobLease;
+import leavemanagementsystem.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes sure a named job runs on one node of the cluster at a time, using leases stored in the
+ * {@code job_leases} table.
+ * <p>
+ * A node runs a job only after acquiring its lease, and extends the lease on a heartbeat while the
+ * job is running. If the node dies, the lease lapses after its duration and the next node to try
+ * takes over. Long jobs should check {@link #holdsLease(String)} between units of work and stop
+ * once the lease has been lost. Nothing but the database is needed; to try it locally, start two
+ * instances with different {@code server.port} values against the same database.
+ */
+@Slf4j
+@Service
+public class JobCoordinator {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final String nodeId;
+    private final long leaseMillis;
+    private final long heartbeatMillis;
+    private final ScheduledExecutorService heartbeat;
+
+    private final Map<String, Lease> held = new ConcurrentHashMap<>();
+
+    private static final class Lease {
+        volatile boolean lost;
+        // System.nanoTime() until which the lease is known to be ours, measured from the request
+        volatile long validUntil;
+        volatile boolean acquired;
+        ScheduledFuture<?> heartbeat;
+    }
+
+    public JobCoordinator(JobLeaseRepository jobLeaseRepository,
+                          @Value("${application.jobs.node-id:}") String nodeId,
+                          @Value("${application.jobs.lease-ms:60000}") long leaseMillis,
+                          @Value("${application.jobs.heartbeat-ms:20000}") long heartbeatMillis) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.leaseMillis = leaseMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Job coordinator started as node {}", this.nodeId);
+    }
+
+    /**
+     * Runs the job if this node can acquire its lease.
+     *
+     * @return false when the job is already running here or on another node
+     */
+    public boolean runExclusively(String jobName, Runnable job) {
+        Lease lease = new Lease();
+        if (held.putIfAbsent(jobName, lease) != null) {
+            return false;
+        }
+        try {
+            long requestedAt = System.nanoTime();
+            if (jobLeaseRepository.tryAcquire(jobName, nodeId, leaseMillis) == 0) {
+                log.debug("Job {} is leased by another node, skipping", jobName);
+                return false;
+            }
+            lease.validUntil = requestedAt + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+            lease.acquired = true;
+            lease.heartbeat = heartbeat.scheduleWithFixedDelay(() -> extend(jobName, lease),
+                    heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+            job.run();
+            return true;
+        } finally {
+            held.remove(jobName, lease);
+            if (lease.acquired) {
+                lease.heartbeat.cancel(false);
+                release(jobName);
+            }
+        }
+    }
+
+    /**
+     * Returns true while this node is running the job and its lease cannot have lapsed: it has not
+     * been lost to another node, and the last successful acquire or extend is less than one lease
+     * duration old, so failing heartbeats end it even when the database is unreachable.
+     */
+    public boolean holdsLease(String jobName) {
+        Lease lease = held.get(jobName);
+        return lease != null && lease.acquired && !lease.lost && System.nanoTime() - lease.validUntil < 0;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public List<JobLease> getLeases() {
+        return jobLeaseRepository.findAll();
+    }
+
+    private void extend(String jobName, Lease lease) {
+        try {
+            long requestedAt = System.nanoTime();
+            if (jobLeaseRepository.extend(jobName, nodeId, leaseMillis) == 0) {
+                lease.lost = true;
+                lease.heartbeat.cancel(false);
+                log.warn("Lost the lease on job {}; another node may take it over", jobName);
+            } else {
+                lease.validUntil = requestedAt + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+            }
+        } catch (RuntimeException e) {
+            // Keep trying: the lease is still valid until it lapses, which holdsLease tracks locally
+            log.warn("Could not extend the lease on job {}", jobName, e);
+        }
+    }
+
+    private void release(String jobName) {
+        try {
+            jobLeaseRepository.release(jobName, nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the lease on job {}; it will lapse on its own", jobName, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        held.keySet().forEach(this::release);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
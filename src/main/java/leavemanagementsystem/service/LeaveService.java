@@ -17,8 +17,8 @@ public interface LeaveService {
     List<Leave> getLeavesByUser(Long userId);
     List<Leave> getLeavesByStatus(LeaveStatus status);
     List<Leave> getLeavesByType(LeaveType leaveType);
-    List<Leave> getLeavesByDepartment(Long departmentId);
-    List<Leave> getLeavesByDepartmentAndStatus(Long departmentId, LeaveStatus status);
+    List<Leave> getLeavesByDepartment(Long departmentId, boolean includeSubtree);
+    List<Leave> getLeavesByDepartmentAndStatus(Long departmentId, LeaveStatus status, boolean includeSubtree);
     void cancelLeave(Long id);
     Leave updateLeave(Long id, Leave leave);
     void deleteLeave(Long id);
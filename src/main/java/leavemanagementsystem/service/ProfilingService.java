@@ -0,0 +1,349 @@
+package leavemanagementsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import leavemanagementsystem.dto.ProfilingRecordingDTO;
+import leavemanagementsystem.dto.ProfilingSummaryDTO;
+import leavemanagementsystem.dto.ProfilingSummaryDTO.HotSpot;
+import leavemanagementsystem.exception.BadRequestException;
+import leavemanagementsystem.exception.ConflictException;
+import leavemanagementsystem.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts Java Flight Recorder recordings on demand for diagnosing production latency.
+ * <p>
+ * Each preset enables only the events it needs, sampled or thresholded so the overhead stays in
+ * the low single-digit percent: stack sampling every 20 ms for CPU, throttled allocation samples
+ * for allocation, and monitor waits and parks over 10 ms for locks. One recording runs at a time,
+ * its duration and size are capped, and only the most recent recordings are kept on disk. A
+ * recording stops by itself when its duration elapses and can then be downloaded as a
+ * {@code .jfr} file or summarized into the top stack locations.
+ */
+@Slf4j
+@Service
+public class ProfilingService {
+
+    private static final String APPLICATION_PACKAGE = "leavemanagementsystem.";
+
+    public enum Preset {
+        CPU, ALLOCATION, LOCKS;
+
+        public static Preset parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new BadRequestException("Unknown profiling preset: " + value + ". Use CPU, ALLOCATION or LOCKS");
+            }
+        }
+    }
+
+    private static final class Session {
+        final long id;
+        final Preset preset;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final Duration duration;
+        final Recording recording;
+        final Path file;
+        volatile ProfilingSummaryDTO summary;
+
+        Session(long id, Preset preset, Duration duration, Recording recording, Path file) {
+            this.id = id;
+            this.preset = preset;
+            this.duration = duration;
+            this.recording = recording;
+            this.file = file;
+        }
+
+        boolean isRunning() {
+            RecordingState state = recording.getState();
+            return state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING;
+        }
+    }
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final int retainedRecordings;
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Session> sessions = new LinkedHashMap<>();
+
+    public ProfilingService(@Value("${application.profiling.max-duration-seconds:300}") long maxDurationSeconds,
+                            @Value("${application.profiling.max-size-mb:100}") long maxSizeMb,
+                            @Value("${application.profiling.retained-recordings:3}") int retainedRecordings) {
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.retainedRecordings = Math.max(1, retainedRecordings);
+    }
+
+    public synchronized ProfilingRecordingDTO start(Preset preset, long durationSeconds) {
+        if (durationSeconds <= 0) {
+            throw new BadRequestException("Duration must be positive");
+        }
+        for (Session session : sessions.values()) {
+            if (session.isRunning()) {
+                throw new ConflictException("Recording " + session.id + " is still running");
+            }
+        }
+        Duration duration = Duration.ofSeconds(Math.min(durationSeconds, maxDuration.toSeconds()));
+
+        long id = ids.incrementAndGet();
+        Path file;
+        try {
+            file = Files.createTempFile("lms-profile-" + id + "-", ".jfr");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the recording file", e);
+        }
+        Recording recording = new Recording();
+        recording.setName("lms-" + preset.name().toLowerCase(Locale.ROOT) + "-" + id);
+        configure(recording, preset);
+        recording.setDuration(duration);
+        recording.setMaxSize(maxSizeBytes);
+        recording.setToDisk(true);
+        try {
+            recording.setDestination(file);
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException("Could not set the recording destination", e);
+        }
+        recording.start();
+
+        Session session = new Session(id, preset, duration, recording, file);
+        sessions.put(id, session);
+        evictOldRecordings();
+        log.info("Started {} profiling recording {} for {} s", preset, id, duration.toSeconds());
+        return toDto(session);
+    }
+
+    public synchronized ProfilingRecordingDTO stop(long id) {
+        Session session = getSession(id);
+        if (session.isRunning()) {
+            session.recording.stop();
+            log.info("Stopped profiling recording {}", id);
+        }
+        return toDto(session);
+    }
+
+    public synchronized List<ProfilingRecordingDTO> getRecordings() {
+        return sessions.values().stream().map(this::toDto).toList();
+    }
+
+    /**
+     * Returns the {@code .jfr} file of a finished recording.
+     */
+    public Path getRecordingFile(long id) {
+        Session session = getFinishedSession(id);
+        return session.file;
+    }
+
+    /**
+     * Aggregates a finished recording into its top stack locations. The result is computed once per
+     * recording and then reused.
+     */
+    public ProfilingSummaryDTO summarize(long id, int top) {
+        Session session = getFinishedSession(id);
+        ProfilingSummaryDTO summary = session.summary;
+        if (summary == null) {
+            summary = readSummary(session);
+            session.summary = summary;
+        }
+        return ProfilingSummaryDTO.builder()
+                .recordingId(summary.getRecordingId())
+                .preset(summary.getPreset())
+                .events(summary.getEvents())
+                .hotMethods(limit(summary.getHotMethods(), top))
+                .allocationSites(limit(summary.getAllocationSites(), top))
+                .contention(limit(summary.getContention(), top))
+                .build();
+    }
+
+    private static void configure(Recording recording, Preset preset) {
+        switch (preset) {
+            case CPU -> {
+                recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(20)).withStackTrace();
+                recording.enable("jdk.NativeMethodSample").withPeriod(Duration.ofMillis(20)).withStackTrace();
+            }
+            case ALLOCATION -> {
+                recording.enable("jdk.ObjectAllocationSample").with("throttle", "150/s").withStackTrace();
+                recording.enable("jdk.GarbageCollection");
+            }
+            case LOCKS -> {
+                recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(10)).withStackTrace();
+                recording.enable("jdk.JavaMonitorWait").withThreshold(Duration.ofMillis(10)).withStackTrace();
+                recording.enable("jdk.ThreadPark").withThreshold(Duration.ofMillis(10)).withStackTrace();
+            }
+        }
+    }
+
+    private ProfilingSummaryDTO readSummary(Session session) {
+        Map<String, long[]> hotMethods = new HashMap<>();
+        Map<String, long[]> allocationSites = new HashMap<>();
+        Map<String, long[]> contention = new HashMap<>();
+        long events = 0;
+
+        try (RecordingFile recordingFile = new RecordingFile(session.file)) {
+            while (recordingFile.hasMoreEvents()) {
+                RecordedEvent event = recordingFile.readEvent();
+                events++;
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample", "jdk.NativeMethodSample" ->
+                            add(hotMethods, topFrame(event.getStackTrace()), 1);
+                    case "jdk.ObjectAllocationSample" -> {
+                        RecordedClass type = event.getClass("objectClass");
+                        String site = topFrame(event.getStackTrace()) + (type != null ? " (" + type.getName() + ")" : "");
+                        add(allocationSites, site, event.getLong("weight"));
+                    }
+                    case "jdk.JavaMonitorEnter", "jdk.JavaMonitorWait", "jdk.ThreadPark" ->
+                            add(contention, applicationFrame(event.getStackTrace()), event.getDuration().toNanos());
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read recording " + session.id, e);
+        }
+
+        return ProfilingSummaryDTO.builder()
+                .recordingId(session.id)
+                .preset(session.preset.name())
+                .events(events)
+                .hotMethods(rank(hotMethods))
+                .allocationSites(rank(allocationSites))
+                .contention(rank(contention))
+                .build();
+    }
+
+    private static void add(Map<String, long[]> totals, String frame, long amount) {
+        long[] total = totals.computeIfAbsent(frame, key -> new long[2]);
+        total[0]++;
+        total[1] += amount;
+    }
+
+    private static List<HotSpot> rank(Map<String, long[]> totals) {
+        long sum = 0;
+        for (long[] total : totals.values()) {
+            sum += total[1];
+        }
+        long grandTotal = sum;
+        return totals.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[1]).reversed())
+                .map(entry -> HotSpot.builder()
+                        .frame(entry.getKey())
+                        .count(entry.getValue()[0])
+                        .total(entry.getValue()[1])
+                        .percent(grandTotal == 0 ? 0 : Math.round(entry.getValue()[1] * 10000.0 / grandTotal) / 100.0)
+                        .build())
+                .toList();
+    }
+
+    private static List<HotSpot> limit(List<HotSpot> hotSpots, int top) {
+        return hotSpots.size() <= top ? hotSpots : hotSpots.subList(0, top);
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    /**
+     * Returns the first application frame, where the blocking call was made, or the top frame.
+     */
+    private static String applicationFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        return stackTrace.getFrames().stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .map(ProfilingService::describe)
+                .orElseGet(() -> topFrame(stackTrace));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private synchronized Session getSession(long id) {
+        Session session = sessions.get(id);
+        if (session == null) {
+            throw new ResourceNotFoundException("Profiling recording not found with id: " + id);
+        }
+        return session;
+    }
+
+    private Session getFinishedSession(long id) {
+        Session session = getSession(id);
+        if (session.isRunning()) {
+            throw new ConflictException("Recording " + id + " is still running");
+        }
+        return session;
+    }
+
+    private void evictOldRecordings() {
+        Iterator<Session> iterator = sessions.values().iterator();
+        while (sessions.size() > retainedRecordings && iterator.hasNext()) {
+            Session oldest = iterator.next();
+            if (!oldest.isRunning()) {
+                discard(oldest);
+                iterator.remove();
+            }
+        }
+    }
+
+    private static void discard(Session session) {
+        session.recording.close();
+        try {
+            Files.deleteIfExists(session.file);
+        } catch (IOException e) {
+            log.warn("Could not delete recording file {}", session.file, e);
+        }
+    }
+
+    private ProfilingRecordingDTO toDto(Session session) {
+        long size;
+        try {
+            size = Files.size(session.file);
+        } catch (IOException e) {
+            size = 0;
+        }
+        return ProfilingRecordingDTO.builder()
+                .id(session.id)
+                .preset(session.preset.name())
+                .state(session.recording.getState().name())
+                .startedAt(session.startedAt)
+                .maxDurationSeconds(session.duration.toSeconds())
+                .sizeBytes(size)
+                .build();
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        new ArrayList<>(sessions.values()).forEach(ProfilingService::discard);
+        sessions.clear();
+    }
+}
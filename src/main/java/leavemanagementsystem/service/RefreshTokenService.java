@@ -0,0 +1,125 @@
+package leavemanagementsystem.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import leavemanagementsystem.exception.UnauthorizedException;
+import leavemanagementsystem.model.RefreshToken;
+import leavemanagementsystem.model.User;
+import leavemanagementsystem.repository.RefreshTokenRepository;
+import leavemanagementsystem.security.JwtService;
+import leavemanagementsystem.security.TokenRevocationList;
+import leavemanagementsystem.security.VerifiedToken;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Issues, rotates and revokes refresh tokens.
+ * <p>
+ * Every login starts a token family. Each refresh consumes the presented token and issues the next
+ * one in the same family; presenting an already consumed token is treated as theft and revokes the
+ * whole family, including the access tokens issued for it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final TokenRevocationList revocationList;
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class TokenPair {
+        private final String accessToken;
+        private final String refreshToken;
+    }
+
+    /**
+     * Starts a new token family for a successful login.
+     */
+    public TokenPair issueTokens(User user) {
+        return issueTokens(user, UUID.randomUUID());
+    }
+
+    public TokenPair issueTokens(User user, UUID familyId) {
+        UUID tokenId = UUID.randomUUID();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(tokenId)
+                .familyId(familyId)
+                .userId(user.getId())
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(jwtService.getRefreshExpiration())))
+                .build());
+
+        return new TokenPair(
+                jwtService.generateToken(user, familyId),
+                jwtService.generateRefreshToken(user, tokenId, familyId)
+        );
+    }
+
+    /**
+     * Consumes a verified refresh token so it cannot be used again. The next pair of the family
+     * is then issued with {@link #issueTokens(User, UUID)}.
+     *
+     * @return the family the token belongs to
+     */
+    public UUID consume(VerifiedToken token) {
+        if (!token.isRefreshToken() || token.getTokenId() == null || token.getFamilyId() == null) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        UUID tokenId = UUID.fromString(token.getTokenId());
+        UUID familyId = UUID.fromString(token.getFamilyId());
+
+        if (revocationList.isRevoked(token.getFamilyId())) {
+            throw new UnauthorizedException("Refresh token has been revoked");
+        }
+
+        if (refreshTokenRepository.markUsed(tokenId, LocalDateTime.now()) == 0) {
+            RefreshToken stored = refreshTokenRepository.findById(tokenId)
+                    .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+            if (stored.isUsed() && !stored.isRevoked()) {
+                log.warn("Refresh token reuse detected for user {}, revoking token family {}", stored.getUserId(), familyId);
+                revokeFamily(familyId);
+            }
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        return familyId;
+    }
+
+    public void revokeFamily(UUID familyId) {
+        refreshTokenRepository.revokeFamily(familyId, LocalDateTime.now());
+        revocationList.revoke(familyId.toString());
+    }
+
+    /**
+     * Revokes every session of a user, e.g. when the account is rejected or deleted.
+     */
+    public void revokeAllForUser(Long userId) {
+        var familyIds = refreshTokenRepository.findActiveFamilyIdsByUserId(userId);
+        if (familyIds.isEmpty()) {
+            return;
+        }
+        refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+        familyIds.forEach(familyId -> revocationList.revoke(familyId.toString()));
+    }
+
+    /**
+     * Revokes every session of the given users with one UPDATE, e.g. after a bulk role change.
+     */
+    public void revokeAllForUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        var familyIds = refreshTokenRepository.findActiveFamilyIdsByUserIdIn(userIds);
+        if (familyIds.isEmpty()) {
+            return;
+        }
+        refreshTokenRepository.revokeAllByUserIdIn(userIds, LocalDateTime.now());
+        familyIds.forEach(familyId -> revocationList.revoke(familyId.toString()));
+    }
+}
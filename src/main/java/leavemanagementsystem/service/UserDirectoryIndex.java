@@ -0,0 +1,281 @@
+package leavemanagementsystem.service;
+
+import lombok.extern.slf4j.Slf4j;
+import leavemanagementsystem.dto.PageResponse;
+import leavemanagementsystem.dto.UserSummaryDTO;
+import leavemanagementsystem.model.User;
+import leavemanagementsystem.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory prefix index over user first names, last names and emails, used for the paginated
+ * directory search.
+ * <p>
+ * Every term is stored lower-cased in a sorted map as {@code term + '\0' + id}. A prefix lookup is a
+ * range scan that stops once the requested page is full, so typeahead cost depends on the page
+ * size rather than on the number of users. The index is loaded at startup and kept current by the
+ * services that change users; other nodes reload the changed users when notified through the
+ * {@link CacheInvalidationBus}. A periodic rebuild also picks up anything that was missed. Reloads
+ * and rebuilds read from the primary, since a lagging replica could return a user as it was before
+ * the change that triggered them.
+ * <p>
+ * Changes made while a rebuild is loading are recorded and replayed on the new index once it is
+ * swapped in, so they are not lost to a snapshot taken before them. A changed user's new terms are
+ * added before its stale ones are removed, so concurrent searches always find it.
+ */
+@Slf4j
+@Service
+public class UserDirectoryIndex implements ClusterCache {
+
+    private static final char SEPARATOR = '\0';
+
+    private final UserRepository userRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Index index = new Index();
+    private volatile Queue<Consumer<Index>> changesDuringRebuild;
+
+    private static final class Index {
+        final Map<Long, UserSummaryDTO> users = new ConcurrentHashMap<>();
+        final NavigableMap<String, Long> terms = new ConcurrentSkipListMap<>();
+    }
+
+    public UserDirectoryIndex(UserRepository userRepository, CacheInvalidationBus invalidationBus,
+                              PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        // Not read-only, so that loads are routed to the primary, and new, as reloads also run
+        // after the changing transaction has committed
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${application.users.directory.rebuild-interval-ms:600000}",
+            fixedDelayString = "${application.users.directory.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        Queue<Consumer<Index>> changes = new ConcurrentLinkedQueue<>();
+        changesDuringRebuild = changes;
+        try {
+            Index rebuilt = new Index();
+            for (UserSummaryDTO user : transactionTemplate.execute(status -> userRepository.findAllSummaries())) {
+                put(rebuilt, user);
+            }
+            index = rebuilt;
+            // Changes applied to the old index after the snapshot was taken
+            Consumer<Index> change;
+            while ((change = changes.poll()) != null) {
+                change.accept(rebuilt);
+            }
+            log.debug("User directory index rebuilt with {} users", rebuilt.users.size());
+        } finally {
+            changesDuringRebuild = null;
+        }
+    }
+
+    /**
+     * Adds or replaces the entry of a user that was just created or changed.
+     */
+    public void put(User user) {
+        put(UserSummaryDTO.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .department(user.getDepartment() != null ? user.getDepartment().getName() : null)
+                .role(user.getRole())
+                .status(user.getStatus())
+                .build());
+    }
+
+    public void put(UserSummaryDTO summary) {
+        putLocal(summary);
+        invalidationBus.publish(getCacheName(), summary.getId().toString());
+    }
+
+    public void remove(Long userId) {
+        apply(current -> remove(current, userId));
+        invalidationBus.publish(getCacheName(), userId.toString());
+    }
+
+    /**
+     * Updates the department shown for its members after a rename. The indexed terms do not change.
+     */
+    public void renameDepartment(String previousName, String name) {
+        apply(current -> current.users.replaceAll((id, user) -> previousName.equals(user.getDepartment())
+                ? user.toBuilder().department(name).build()
+                : user));
+        invalidationBus.publish(getCacheName(), CacheInvalidationBus.FLUSH_ALL);
+    }
+
+    /**
+     * Drops the members of a deleted department, whose users are removed along with it.
+     */
+    public void removeDepartment(String name) {
+        apply(current -> current.users.values().stream()
+                .filter(user -> name.equals(user.getDepartment()))
+                .map(UserSummaryDTO::getId)
+                .toList()
+                .forEach(id -> remove(current, id)));
+        invalidationBus.publish(getCacheName(), CacheInvalidationBus.FLUSH_ALL);
+    }
+
+    @Override
+    public String getCacheName() {
+        return "user-directory";
+    }
+
+    /**
+     * Reloads a changed user, or drops it when it no longer exists.
+     */
+    @Override
+    public void evictLocal(String key) {
+        Long userId = Long.valueOf(key);
+        transactionTemplate.execute(status -> userRepository.findSummaryById(userId))
+                .ifPresentOrElse(this::putLocal, () -> apply(current -> remove(current, userId)));
+    }
+
+    @Override
+    public void evictLocal(Collection<String> keys) {
+        List<Long> userIds = keys.stream().map(Long::valueOf).toList();
+        Set<Long> found = new HashSet<>();
+        for (UserSummaryDTO user : transactionTemplate.execute(status -> userRepository.findSummariesByIdIn(userIds))) {
+            found.add(user.getId());
+            putLocal(user);
+        }
+        userIds.stream()
+                .filter(userId -> !found.contains(userId))
+                .forEach(userId -> apply(current -> remove(current, userId)));
+    }
+
+    @Override
+    public void flushLocal() {
+        rebuild();
+    }
+
+    /**
+     * Returns the users whose first name, last name, full name or email starts with the query,
+     * ordered by the matching term. A blank query pages through every user.
+     */
+    public PageResponse<UserSummaryDTO> search(String query, int page, int size) {
+        Index current = index;
+        String prefix = normalize(query);
+        int spaceIndex = prefix.indexOf(' ');
+        // Multi-word queries scan by the first word and match the full name
+        String scanPrefix = spaceIndex < 0 ? prefix : prefix.substring(0, spaceIndex);
+        NavigableMap<String, Long> range = scanPrefix.isEmpty()
+                ? current.terms
+                : current.terms.subMap(scanPrefix, true, scanPrefix + Character.MAX_VALUE, false);
+
+        long skip = (long) page * size;
+        Set<Long> seen = new HashSet<>();
+        List<UserSummaryDTO> content = new ArrayList<>(size);
+        boolean hasNext = false;
+        for (Long id : range.values()) {
+            if (!seen.add(id)) {
+                continue;
+            }
+            UserSummaryDTO user = current.users.get(id);
+            if (user == null || (spaceIndex >= 0 && !matchesFullName(user, prefix))) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+            } else if (content.size() < size) {
+                content.add(user);
+            } else {
+                hasNext = true;
+                break;
+            }
+        }
+
+        return PageResponse.<UserSummaryDTO>builder()
+                .content(content)
+                .page(page)
+                .size(size)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private void putLocal(UserSummaryDTO summary) {
+        apply(current -> put(current, summary));
+    }
+
+    /**
+     * Applies a change to the live index, and records it for replay when a rebuild is loading.
+     * Recording first means a change missed by the swap is always replayed afterwards.
+     */
+    private void apply(Consumer<Index> change) {
+        Queue<Consumer<Index>> changes = changesDuringRebuild;
+        if (changes != null) {
+            changes.add(change);
+        }
+        change.accept(index);
+    }
+
+    private static void put(Index target, UserSummaryDTO user) {
+        UserSummaryDTO previous = target.users.put(user.getId(), user);
+        List<String> terms = termsOf(user);
+        for (String term : terms) {
+            target.terms.put(term + SEPARATOR + user.getId(), user.getId());
+        }
+        if (previous != null) {
+            for (String term : termsOf(previous)) {
+                if (!terms.contains(term)) {
+                    target.terms.remove(term + SEPARATOR + user.getId());
+                }
+            }
+        }
+    }
+
+    private static void remove(Index target, Long userId) {
+        UserSummaryDTO previous = target.users.remove(userId);
+        if (previous != null) {
+            for (String term : termsOf(previous)) {
+                target.terms.remove(term + SEPARATOR + userId);
+            }
+        }
+    }
+
+    private static List<String> termsOf(UserSummaryDTO user) {
+        List<String> terms = new ArrayList<>(3);
+        for (String value : new String[]{user.getFirstName(), user.getLastName(), user.getEmail()}) {
+            String term = normalize(value);
+            if (!term.isEmpty() && !terms.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static boolean matchesFullName(UserSummaryDTO user, String prefix) {
+        String first = normalize(user.getFirstName());
+        String last = normalize(user.getLastName());
+        return (first + ' ' + last).startsWith(prefix) || (last + ' ' + first).startsWith(prefix);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
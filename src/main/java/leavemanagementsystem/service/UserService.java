@@ -1,6 +1,10 @@
 package leavemanagementsystem.service;
 
+import leavemanagementsystem.dto.BulkUserUpdateRequest;
+import leavemanagementsystem.dto.BulkUserUpdateResponse;
+import leavemanagementsystem.dto.PageResponse;
 import leavemanagementsystem.dto.UserApprovalRequest;
+import leavemanagementsystem.dto.UserSummaryDTO;
 import leavemanagementsystem.model.Role;
 import leavemanagementsystem.model.User;
 import leavemanagementsystem.model.UserStatus;
@@ -11,10 +15,12 @@ public interface UserService {
     User getUser(Long id);
     List<User> getAllUsers();
     List<User> getUsersByStatus(UserStatus status);
-    List<User> getUsersByDepartment(Long departmentId);
+    List<User> getUsersByDepartment(Long departmentId, boolean includeSubtree);
     User updateUser(Long id, User user);
     void deleteUser(Long id);
     User approveUser(Long userId, String department, Role role);
     User rejectUser(Long id);
+    BulkUserUpdateResponse bulkUpdateUsers(BulkUserUpdateRequest request);
     User getUserByEmail(String email);
+    PageResponse<UserSummaryDTO> searchUsers(String query, int page, int size);
 } 
\ No newline at end of file
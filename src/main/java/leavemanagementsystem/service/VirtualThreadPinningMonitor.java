@@ -0,0 +1,98 @@
+package leavemanagementsystem.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, typically while blocking inside
+ * a {@code synchronized} block (JavaMail's SMTP transport, for instance). Runs only in virtual
+ * thread mode.
+ * <p>
+ * Pinned events longer than the threshold are streamed from JFR, counted in
+ * {@code lms.virtual.pinned} tagged with the first application frame, and logged with the top of
+ * the stack, at most once per interval for each location.
+ */
+@Slf4j
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final String APPLICATION_PACKAGE = "leavemanagementsystem.";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Duration logInterval;
+    private final Map<String, Long> lastLogged = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                       @Value("${application.virtual-threads.pinning.enabled:true}") boolean enabled,
+                                       @Value("${application.virtual-threads.pinning.threshold-ms:20}") long thresholdMillis,
+                                       @Value("${application.virtual-threads.pinning.log-interval-ms:60000}") long logIntervalMillis) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = virtualThreads && enabled;
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.logInterval = Duration.ofMillis(logIntervalMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        log.info("Monitoring virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String location = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .map(VirtualThreadPinningMonitor::describe)
+                .orElse("unknown");
+        meterRegistry.counter("lms.virtual.pinned", "location", location).increment();
+
+        long now = System.currentTimeMillis();
+        Long previous = lastLogged.get(location);
+        if (previous == null || now - previous >= logInterval.toMillis()) {
+            lastLogged.put(location, now);
+            log.warn("Virtual thread pinned for {} ms at {}:\n    {}", event.getDuration().toMillis(), location,
+                    frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::describe)
+                            .collect(Collectors.joining("\n    ")));
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
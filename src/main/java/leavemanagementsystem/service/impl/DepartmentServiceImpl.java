@@ -1,25 +1,46 @@
 package leavemanagementsystem.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import leavemanagementsystem.dto.DepartmentSummaryDTO;
+import leavemanagementsystem.dto.PageResponse;
+import leavemanagementsystem.dto.UserSummaryDTO;
+import leavemanagementsystem.exception.BadRequestException;
 import leavemanagementsystem.exception.ResourceNotFoundException;
 import leavemanagementsystem.model.Department;
+import leavemanagementsystem.repository.DepartmentClosureRepository;
 import leavemanagementsystem.repository.DepartmentRepository;
+import leavemanagementsystem.repository.UserRepository;
+import leavemanagementsystem.service.ApproverDirectory;
 import leavemanagementsystem.service.DepartmentService;
+import leavemanagementsystem.service.EntityCacheService;
+import leavemanagementsystem.service.UserDirectoryIndex;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
+    private final DepartmentClosureRepository closureRepository;
+    private final UserRepository userRepository;
+    private final UserDirectoryIndex userDirectoryIndex;
+    private final ApproverDirectory approverDirectory;
+    private final EntityCacheService entityCacheService;
 
     @Override
     @Transactional
     public Department createDepartment(Department department) {
-        return departmentRepository.save(department);
+        Department savedDepartment = departmentRepository.save(department);
+        closureRepository.insertDepartment(savedDepartment.getId(), savedDepartment.getParentId());
+        entityCacheService.evictDepartment(savedDepartment.getId());
+        return savedDepartment;
     }
 
     @Override
@@ -35,26 +56,106 @@ public class DepartmentServiceImpl implements DepartmentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Department> getAllDepartments() {
         return departmentRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<DepartmentSummaryDTO> getDepartmentSummaries() {
+        return departmentRepository.findAllSummaries(LocalDate.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DepartmentSummaryDTO getDepartmentSummary(Long id) {
+        return departmentRepository.findSummaryById(id, LocalDate.now())
+                .orElseThrow(() -> new ResourceNotFoundException("Department not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<UserSummaryDTO> getDepartmentMembers(Long id, int page, int size) {
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        if (size < 1 || size > 100) {
+            throw new BadRequestException("Size must be between 1 and 100");
+        }
+        if (!departmentRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Department not found with id: " + id);
+        }
+        Slice<UserSummaryDTO> members = userRepository.findSummariesByDepartmentId(id, PageRequest.of(page, size));
+        return PageResponse.<UserSummaryDTO>builder()
+                .content(members.getContent())
+                .page(page)
+                .size(size)
+                .hasNext(members.hasNext())
+                .build();
+    }
+
     @Override
     @Transactional
     public Department updateDepartment(Long id, Department department) {
         Department existingDepartment = getDepartment(id);
+        String previousName = existingDepartment.getName();
         
         existingDepartment.setName(department.getName());
         existingDepartment.setDescription(department.getDescription());
         
-        return departmentRepository.save(existingDepartment);
+        Department savedDepartment = departmentRepository.save(existingDepartment);
+        userDirectoryIndex.renameDepartment(previousName, savedDepartment.getName());
+        entityCacheService.evictDepartment(id);
+        return savedDepartment;
+    }
+
+    /**
+     * Moves a department, with everything beneath it, under a new parent, or to the top level when
+     * {@code parentId} is null. The closure table is rewritten with two statements whatever the
+     * size of the subtree. Users keep their department, so no user rows are touched. The rows
+     * involved are locked first, so that concurrent moves cannot both pass the cycle check.
+     */
+    @Override
+    @Transactional
+    public Department moveDepartment(Long id, Long parentId) {
+        departmentRepository.lockForMove(id, parentId);
+        Department department = getDepartment(id);
+        if (Objects.equals(department.getParentId(), parentId)) {
+            return department;
+        }
+        
+        Department parent = null;
+        if (parentId != null) {
+            parent = getDepartment(parentId);
+            if (closureRepository.isInSubtree(id, parentId)) {
+                throw new BadRequestException("A department cannot be moved under itself or one of its sub-departments");
+            }
+        }
+        
+        closureRepository.detachSubtree(id);
+        if (parentId != null) {
+            closureRepository.attachSubtree(id, parentId);
+        }
+        department.setParent(parent);
+        Department savedDepartment = departmentRepository.save(department);
+        approverDirectory.evictHierarchy();
+        entityCacheService.evictDepartment(id);
+        return savedDepartment;
     }
 
     @Override
     @Transactional
     public void deleteDepartment(Long id) {
         Department department = getDepartment(id);
+        if (departmentRepository.existsByParent_Id(id)) {
+            throw new BadRequestException("Department has sub-departments. Move or delete them first");
+        }
+        closureRepository.deleteDepartment(id);
         departmentRepository.delete(department);
+        approverDirectory.evictHierarchy();
+        userDirectoryIndex.removeDepartment(department.getName());
+        entityCacheService.evictDepartment(id);
     }
 
     @Override
@@ -71,7 +172,13 @@ public class DepartmentServiceImpl implements DepartmentService {
                     .name("Administration")
                     .description("Administration Department")
                     .build();
-            departmentRepository.save(adminDepartment);
+            entityCacheService.evictDepartment(departmentRepository.save(adminDepartment).getId());
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public void ensureHierarchyInitialized() {
+        closureRepository.insertMissingRoots();
+    }
+}
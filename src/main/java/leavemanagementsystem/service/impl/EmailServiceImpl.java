@@ -1,13 +1,19 @@
 package leavemanagementsystem.service.impl;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 import leavemanagementsystem.model.Leave;
 import leavemanagementsystem.model.LeaveStatus;
 import leavemanagementsystem.model.User;
 import leavemanagementsystem.model.UserInvitation;
 import leavemanagementsystem.service.EmailService;
+import leavemanagementsystem.util.DateFormats;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -17,16 +23,31 @@ import org.thymeleaf.context.Context;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
-import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
+    private final ObservationRegistry observationRegistry;
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public EmailServiceImpl(JavaMailSender mailSender, TemplateEngine templateEngine, MeterRegistry meterRegistry,
+                            ObservationRegistry observationRegistry) {
+        this.mailSender = mailSender;
+        this.templateEngine = templateEngine;
+        this.observationRegistry = observationRegistry;
+        this.sendTimer = Timer.builder("lms.email.send")
+                .description("Time spent handing an email to the SMTP server")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("lms.email.sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("lms.email.failed").register(meterRegistry);
+    }
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -39,11 +60,16 @@ public class EmailServiceImpl implements EmailService {
         message.setSubject(subject);
         message.setText(text);
         
+        long start = System.nanoTime();
         try {
-            mailSender.send(message);
+            smtp().observe(() -> mailSender.send(message));
+            sentCounter.increment();
             log.info("Simple email sent to: {}", to);
         } catch (Exception e) {
+            failedCounter.increment();
             log.error("Failed to send simple email to: {}", to, e);
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -53,10 +79,10 @@ public class EmailServiceImpl implements EmailService {
         Context context = new Context();
         context.setVariable("user", user);
         context.setVariable("leave", leave);
-        context.setVariable("startDate", leave.getStartDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
-        context.setVariable("endDate", leave.getEndDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
+        context.setVariable("startDate", leave.getStartDate().format(DateFormats.DISPLAY_DATE_FORMATTER));
+        context.setVariable("endDate", leave.getEndDate().format(DateFormats.DISPLAY_DATE_FORMATTER));
         
-        String htmlContent = templateEngine.process("leave-request-notification", context);
+        String htmlContent = render("leave-request-notification", context);
         sendHtmlEmail(user.getEmail(), subject, htmlContent);
     }
 
@@ -66,10 +92,10 @@ public class EmailServiceImpl implements EmailService {
         Context context = new Context();
         context.setVariable("user", user);
         context.setVariable("leave", leave);
-        context.setVariable("startDate", leave.getStartDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
-        context.setVariable("endDate", leave.getEndDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
+        context.setVariable("startDate", leave.getStartDate().format(DateFormats.DISPLAY_DATE_FORMATTER));
+        context.setVariable("endDate", leave.getEndDate().format(DateFormats.DISPLAY_DATE_FORMATTER));
         
-        String htmlContent = templateEngine.process("leave-approval-notification", context);
+        String htmlContent = render("leave-approval-notification", context);
         sendHtmlEmail(user.getEmail(), subject, htmlContent);
     }
 
@@ -79,11 +105,11 @@ public class EmailServiceImpl implements EmailService {
         Context context = new Context();
         context.setVariable("user", user);
         context.setVariable("leave", leave);
-        context.setVariable("startDate", leave.getStartDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
-        context.setVariable("endDate", leave.getEndDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
+        context.setVariable("startDate", leave.getStartDate().format(DateFormats.DISPLAY_DATE_FORMATTER));
+        context.setVariable("endDate", leave.getEndDate().format(DateFormats.DISPLAY_DATE_FORMATTER));
         context.setVariable("reason", reason);
         
-        String htmlContent = templateEngine.process("leave-rejection-notification", context);
+        String htmlContent = render("leave-rejection-notification", context);
         sendHtmlEmail(user.getEmail(), subject, htmlContent);
     }
 
@@ -93,10 +119,10 @@ public class EmailServiceImpl implements EmailService {
         Context context = new Context();
         context.setVariable("user", user);
         context.setVariable("leave", leave);
-        context.setVariable("startDate", leave.getStartDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
-        context.setVariable("endDate", leave.getEndDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
+        context.setVariable("startDate", leave.getStartDate().format(DateFormats.DISPLAY_DATE_FORMATTER));
+        context.setVariable("endDate", leave.getEndDate().format(DateFormats.DISPLAY_DATE_FORMATTER));
         
-        String htmlContent = templateEngine.process("leave-request-to-managers", context);
+        String htmlContent = render("leave-request-to-managers", context);
         
         for (String email : managerEmails) {
             sendHtmlEmail(email, subject, htmlContent);
@@ -109,14 +135,15 @@ public class EmailServiceImpl implements EmailService {
         Context context = new Context();
         context.setVariable("invitation", invitation);
         context.setVariable("invitationLink", invitationLink);
-        context.setVariable("expiryDate", invitation.getExpiryDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy")));
+        context.setVariable("expiryDate", invitation.getExpiryDate().format(DateFormats.DISPLAY_DATE_FORMATTER));
         
-        String htmlContent = templateEngine.process("invitation-email", context);
+        String htmlContent = render("invitation-email", context);
         sendHtmlEmail(invitation.getEmail(), subject, htmlContent);
     }
     
     @Override
     public void sendHtmlEmail(String to, String subject, String htmlContent) {
+        long start = System.nanoTime();
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -126,10 +153,29 @@ public class EmailServiceImpl implements EmailService {
             helper.setSubject(subject);
             helper.setText(htmlContent, true);
             
-            mailSender.send(message);
+            smtp().observe(() -> mailSender.send(message));
+            sentCounter.increment();
             log.info("HTML email sent to: {}", to);
         } catch (MessagingException e) {
+            failedCounter.increment();
             log.error("Failed to send HTML email to: {}", to, e);
+        } catch (MailException e) {
+            failedCounter.increment();
+            throw e;
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
-} 
\ No newline at end of file
+
+    private String render(String template, Context context) {
+        return Observation.createNotStarted("lms.email.render", observationRegistry)
+                .contextualName("render " + template)
+                .lowCardinalityKeyValue("template", template)
+                .observe(() -> templateEngine.process(template, context));
+    }
+
+    private Observation smtp() {
+        return Observation.createNotStarted("lms.email.smtp", observationRegistry)
+                .contextualName("smtp send");
+    }
+}
@@ -1,5 +1,6 @@
 package leavemanagementsystem.service.impl;
 
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import leavemanagementsystem.dto.LeaveRequest;
 import leavemanagementsystem.exception.BadRequestException;
@@ -7,45 +8,39 @@ import leavemanagementsystem.exception.ResourceNotFoundException;
 import leavemanagementsystem.model.*;
 import leavemanagementsystem.repository.LeaveRepository;
 import leavemanagementsystem.repository.UserRepository;
+import leavemanagementsystem.security.CurrentUser;
+import leavemanagementsystem.service.ApproverDirectory;
 import leavemanagementsystem.service.EmailService;
 import leavemanagementsystem.service.LeaveService;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 
 @Service
+@Observed(name = "lms.service")
 @RequiredArgsConstructor
 public class LeaveServiceImpl implements LeaveService {
 
     private final LeaveRepository leaveRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final ApproverDirectory approverDirectory;
+    private final CurrentUser currentUser;
 
     @Override
     @Transactional
     public Leave createLeave(Leave leave) {
-        // Get the current authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        
-        // Get the user from the repository
-        User currentUser = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        // Get the current authenticated user, loaded at most once per request
+        User user = currentUser.getUser();
         
         // Always set the user to the logged-in user, ignoring any user that might have been set in the leave object
-        leave.setUser(currentUser);
+        leave.setUser(user);
         
         // Check if the user has MANAGER or ADMIN role
-        boolean isManagerOrAdmin = userDetails.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_MANAGER") || 
-                             a.getAuthority().equals("ROLE_ADMIN"));
+        boolean isManagerOrAdmin = currentUser.hasAnyRole(Role.MANAGER, Role.ADMIN);
         
         // Set the status based on the user's role
         if (isManagerOrAdmin) {
@@ -59,7 +54,7 @@ public class LeaveServiceImpl implements LeaveService {
         
         // Validate annual leave limit for personal time off
         if (leave.getLeaveType() == LeaveType.PTO) {
-            validateAnnualLeaveLimit(currentUser, leave);
+            validateAnnualLeaveLimit(user, leave);
         }
         
         // Validate reason for OTHER leave type
@@ -73,18 +68,14 @@ public class LeaveServiceImpl implements LeaveService {
         // Send email notifications
         if (isManagerOrAdmin) {
             // For managers/admins, send approval notification
-            emailService.sendLeaveApprovalNotification(currentUser, savedLeave);
+            emailService.sendLeaveApprovalNotification(user, savedLeave);
         } else {
             // For regular users, send request notification
-            emailService.sendLeaveRequestNotification(currentUser, savedLeave);
+            emailService.sendLeaveRequestNotification(user, savedLeave);
             
-            // Send notification to managers for approval
-            // In a real application, you would get the actual manager emails
-            List<User> managers = userRepository.findByRoleIn(Arrays.asList(Role.MANAGER, Role.ADMIN));
-            String[] managerEmails = managers.stream()
-                    .map(User::getEmail)
-                    .toArray(String[]::new);
-            emailService.sendLeaveRequestToManagers(currentUser, savedLeave, managerEmails);
+            // Send notification to the managers of the user's department (admins when there are none)
+            String[] managerEmails = approverDirectory.resolveApprovers(currentUser.getDepartmentId());
+            emailService.sendLeaveRequestToManagers(user, savedLeave, managerEmails);
         }
         
         return savedLeave;
@@ -132,25 +123,28 @@ public class LeaveServiceImpl implements LeaveService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Leave> findByUserAndLeaveTypeAndStatus(User user, LeaveType type, LeaveStatus status) {
         return leaveRepository.findByUserAndLeaveTypeAndStatus(user, type, status);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Leave> findApprovedLeavesByDepartmentAndDate(Long departmentId, LeaveStatus status) {
         LocalDate currentDate = LocalDate.now();
         return leaveRepository.findApprovedLeavesByDepartmentAndDate(departmentId, status, currentDate);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Leave> getAllLeaves() {
         return leaveRepository.findAllByOrderByCreatedAtDesc();
     }
 
     @Override
+    @Transactional
     public void cancelLeave(Long id) {
         Leave leave = getLeave(id);
-        User currentUser = getCurrentUser();
 
         if (!leave.getUser().getId().equals(currentUser.getId())) {
             throw new BadRequestException("You can only cancel your own leave requests");
@@ -165,6 +159,7 @@ public class LeaveServiceImpl implements LeaveService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Leave> getLeavesByUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
@@ -172,23 +167,31 @@ public class LeaveServiceImpl implements LeaveService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Leave> getLeavesByStatus(LeaveStatus status) {
         return leaveRepository.findByStatus(status);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Leave> getLeavesByType(LeaveType leaveType) {
         return leaveRepository.findByLeaveType(leaveType);
     }
 
     @Override
-    public List<Leave> getLeavesByDepartment(Long departmentId) {
-        return leaveRepository.findByUserDepartmentId(departmentId);
+    @Transactional(readOnly = true)
+    public List<Leave> getLeavesByDepartment(Long departmentId, boolean includeSubtree) {
+        return includeSubtree
+                ? leaveRepository.findByUserDepartmentSubtree(departmentId)
+                : leaveRepository.findByUserDepartmentId(departmentId);
     }
 
     @Override
-    public List<Leave> getLeavesByDepartmentAndStatus(Long departmentId, LeaveStatus status) {
-        return leaveRepository.findByUserDepartmentIdAndStatus(departmentId, status);
+    @Transactional(readOnly = true)
+    public List<Leave> getLeavesByDepartmentAndStatus(Long departmentId, LeaveStatus status, boolean includeSubtree) {
+        return includeSubtree
+                ? leaveRepository.findByUserDepartmentSubtreeAndStatus(departmentId, status)
+                : leaveRepository.findByUserDepartmentIdAndStatus(departmentId, status);
     }
 
     @Override
@@ -207,7 +210,6 @@ public class LeaveServiceImpl implements LeaveService {
     @Transactional
     public void deleteLeave(Long id) {
         Leave leave = getLeave(id);
-        User currentUser = getCurrentUser();
 
         if (!leave.getUser().getId().equals(currentUser.getId())) {
             throw new BadRequestException("You can only delete your own leave requests");
@@ -224,8 +226,8 @@ public class LeaveServiceImpl implements LeaveService {
     @Transactional
     public Leave respondToLeave(Long id, LeaveStatus status, String comment, Long responderId) {
         Leave leave = getLeave(id);
-        User responder = userRepository.findById(responderId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + responderId));
+        // Only the association is needed, so no query is made for the responder
+        User responder = userRepository.getReferenceById(responderId);
         
         // Validate that a comment is provided when rejecting a leave request
         if (status == LeaveStatus.REJECTED && (comment == null || comment.trim().isEmpty())) {
@@ -249,12 +251,6 @@ public class LeaveServiceImpl implements LeaveService {
         return updatedLeave;
     }
 
-    private User getCurrentUser() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-    }
-
     private void validateLeaveRequest(LeaveRequest request) {
         if (request.getStartDate().isAfter(request.getEndDate())) {
             throw new BadRequestException("Start date must be before end date");
@@ -1,20 +1,35 @@
 package leavemanagementsystem.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import leavemanagementsystem.dto.BulkUserUpdateRequest;
+import leavemanagementsystem.dto.BulkUserUpdateResponse;
+import leavemanagementsystem.dto.PageResponse;
 import leavemanagementsystem.dto.UserApprovalRequest;
+import leavemanagementsystem.dto.UserSummaryDTO;
 import leavemanagementsystem.exception.BadRequestException;
 import leavemanagementsystem.model.Department;
 import leavemanagementsystem.model.Role;
 import leavemanagementsystem.model.User;
 import leavemanagementsystem.model.UserStatus;
 import leavemanagementsystem.repository.UserRepository;
+import leavemanagementsystem.security.PrincipalCache;
+import leavemanagementsystem.service.ApproverDirectory;
 import leavemanagementsystem.service.DepartmentService;
+import leavemanagementsystem.service.EmailDispatcher;
 import leavemanagementsystem.service.EmailService;
 import leavemanagementsystem.service.EmailTemplateService;
+import leavemanagementsystem.service.RefreshTokenService;
+import leavemanagementsystem.service.UserDirectoryIndex;
 import leavemanagementsystem.service.UserService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,7 +38,18 @@ public class UserServiceImpl implements UserService {
     private final DepartmentService departmentService;
     private final EmailService emailService;
     private final EmailTemplateService emailTemplateService;
+    private final ApproverDirectory approverDirectory;
+    private final PrincipalCache principalCache;
+    private final RefreshTokenService refreshTokenService;
+    private final UserDirectoryIndex userDirectoryIndex;
+    private final EmailDispatcher emailDispatcher;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Called on its own, the lookup runs in the repository's read-only transaction and may be
+     * served by the replica. Write flows call it inside their own transaction, so the row they
+     * modify is read from the primary.
+     */
     @Override
     public User getUser(Long id) {
         return userRepository.findById(id)
@@ -31,37 +57,59 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getUsersByStatus(UserStatus status) {
         return userRepository.findByStatus(status);
     }
 
     @Override
-    public List<User> getUsersByDepartment(Long departmentId) {
-        return userRepository.findByDepartmentId(departmentId);
+    @Transactional(readOnly = true)
+    public List<User> getUsersByDepartment(Long departmentId, boolean includeSubtree) {
+        return includeSubtree
+                ? userRepository.findByDepartmentSubtree(departmentId)
+                : userRepository.findByDepartmentId(departmentId);
     }
 
     @Override
+    @Transactional
     public User updateUser(Long id, User user) {
         User existingUser = getUser(id);
+        String previousEmail = existingUser.getEmail();
         existingUser.setFirstName(user.getFirstName());
         existingUser.setLastName(user.getLastName());
         existingUser.setEmail(user.getEmail());
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        Long departmentId = departmentIdOf(savedUser);
+        approverDirectory.onUserChanged(departmentId, savedUser.getRole(), departmentId, savedUser.getRole());
+        principalCache.invalidate(previousEmail);
+        principalCache.invalidate(savedUser.getEmail());
+        userDirectoryIndex.put(savedUser);
+        return savedUser;
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        User user = getUser(id);
+        userRepository.delete(user);
+        approverDirectory.onUserChanged(departmentIdOf(user), user.getRole(), null, null);
+        principalCache.invalidate(user.getEmail());
+        refreshTokenService.revokeAllForUser(user.getId());
+        userDirectoryIndex.remove(user.getId());
     }
 
     @Override
+    @Transactional
     public User approveUser(Long userId, String department, Role role) {
         User user = getUser(userId);
+        Long previousDepartmentId = departmentIdOf(user);
+        Role previousRole = user.getRole();
         
         if (user.getStatus() == UserStatus.APPROVED) {
             throw new BadRequestException("User is already approved");
@@ -81,8 +129,11 @@ public class UserServiceImpl implements UserService {
         user.setRole(role);
         
         User savedUser = userRepository.save(user);
+        approverDirectory.onUserChanged(previousDepartmentId, previousRole, savedDept.getId(), role);
+        principalCache.invalidate(savedUser.getEmail());
+        userDirectoryIndex.put(savedUser);
         
-        // Send approval email to the user using template
+        // Send approval email to the user using template, once the approval is committed
         String subject = "Account Approved";
         String message = emailTemplateService.processApprovalTemplate(
             user.getFirstName(),
@@ -90,12 +141,13 @@ public class UserServiceImpl implements UserService {
             user.getEmail(),
             savedDept.getName()
         );
-        emailService.sendHtmlEmail(user.getEmail(), subject, message);
+        emailDispatcher.dispatchAfterCommit(user.getEmail(), () -> emailService.sendHtmlEmail(user.getEmail(), subject, message));
         
         return savedUser;
     }
 
     @Override
+    @Transactional
     public User rejectUser(Long id) {
         User user = getUser(id);
         UserStatus status = user.getStatus();
@@ -103,22 +155,118 @@ public class UserServiceImpl implements UserService {
         user.setStatus(UserStatus.REJECTED);
 
         User savedUser = userRepository.save(user);
+        Long departmentId = departmentIdOf(savedUser);
+        approverDirectory.onUserChanged(departmentId, savedUser.getRole(), departmentId, savedUser.getRole());
+        principalCache.invalidate(savedUser.getEmail());
+        refreshTokenService.revokeAllForUser(savedUser.getId());
+        userDirectoryIndex.put(savedUser);
         
-        // Send rejection email to the user using template
+        // Send rejection email to the user using template, once the rejection is committed
         String subject = "Account Rejected";
         String message = emailTemplateService.processRejectionTemplate(
             user.getFirstName(),
             user.getLastName(),
             user.getEmail()
         );
-        emailService.sendHtmlEmail(user.getEmail(), subject, message);
+        emailDispatcher.dispatchAfterCommit(user.getEmail(), () -> emailService.sendHtmlEmail(user.getEmail(), subject, message));
         
         return savedUser;
     }
 
+    /**
+     * Applies the same approval, role and department change to many users with one UPDATE per
+     * changed attribute. Caches are invalidated once for the whole batch, and approval emails
+     * are queued on the {@link EmailDispatcher}; those refused by a full queue are counted in the
+     * response. Only admins may call it, since it can grant any role to any user.
+     * <p>
+     * Approval only applies to PENDING users: a REJECTED account is not re-approved by a bulk
+     * request and has to be approved on its own through {@link #approveUser}.
+     * <p>
+     * Users whose role or department changes are signed out, as their refresh tokens carry the
+     * old role.
+     */
+    @Override
+    public BulkUserUpdateResponse bulkUpdateUsers(BulkUserUpdateRequest request) {
+        List<Long> ids = request.getUserIds().stream().filter(Objects::nonNull).distinct().toList();
+        Role role = request.getRole();
+        Department department = request.getDepartment() != null
+                ? departmentService.getDepartment(request.getDepartment())
+                : null;
+        if (!request.isApprove() && role == null && department == null) {
+            throw new BadRequestException("No changes requested");
+        }
+
+        List<UserSummaryDTO> users = userRepository.findSummariesByIdIn(ids);
+        Set<Long> foundIds = users.stream().map(UserSummaryDTO::getId).collect(Collectors.toSet());
+        List<Long> notFound = ids.stream().filter(id -> !foundIds.contains(id)).toList();
+        List<UserSummaryDTO> toApprove = request.isApprove()
+                ? users.stream().filter(user -> user.getStatus() == UserStatus.PENDING).toList()
+                : List.of();
+        if (department == null && toApprove.stream().anyMatch(user -> user.getDepartment() == null)) {
+            throw new BadRequestException("Department assignment is mandatory for user approval");
+        }
+
+        if (!foundIds.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (department != null) {
+                    userRepository.updateDepartment(foundIds, department, now);
+                }
+                if (role != null) {
+                    userRepository.updateRole(foundIds, role, now);
+                }
+                if (!toApprove.isEmpty()) {
+                    userRepository.updateStatus(toApprove.stream().map(UserSummaryDTO::getId).toList(), UserStatus.APPROVED, now);
+                }
+            });
+
+            approverDirectory.evictAll();
+            principalCache.invalidateAll(users.stream().map(UserSummaryDTO::getEmail).toList());
+            if (role != null || department != null) {
+                refreshTokenService.revokeAllForUsers(foundIds);
+            }
+            userRepository.findSummariesByIdIn(foundIds).forEach(userDirectoryIndex::put);
+        }
+
+        int emailsNotQueued = 0;
+        for (UserSummaryDTO user : toApprove) {
+            String departmentName = department != null ? department.getName() : user.getDepartment();
+            boolean queued = emailDispatcher.dispatch(user.getEmail(), () -> emailService.sendHtmlEmail(
+                    user.getEmail(),
+                    "Account Approved",
+                    emailTemplateService.processApprovalTemplate(user.getFirstName(), user.getLastName(), user.getEmail(), departmentName)));
+            if (!queued) {
+                emailsNotQueued++;
+            }
+        }
+
+        return BulkUserUpdateResponse.builder()
+                .requested(ids.size())
+                .updated(foundIds.size())
+                .approved(toApprove.size())
+                .approvalEmailsNotQueued(emailsNotQueued)
+                .notFound(notFound)
+                .build();
+    }
+
     @Override
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new BadRequestException("User not found"));
     }
-} 
\ No newline at end of file
+
+    @Override
+    public PageResponse<UserSummaryDTO> searchUsers(String query, int page, int size) {
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        if (size < 1 || size > 100) {
+            throw new BadRequestException("Size must be between 1 and 100");
+        }
+        return userDirectoryIndex.search(query, page, size);
+    }
+
+    private Long departmentIdOf(User user) {
+        return user.getDepartment() != null ? user.getDepartment().getId() : null;
+    }
+}
@@ -0,0 +1,23 @@
+package leavemanagementsystem.util;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Date patterns used in JSON and emails. Fields without a {@code @JsonFormat} use {@link #DATE} and
+ * {@link #DATE_TIME}, as configured on the shared {@code ObjectMapper}.
+ */
+public final class DateFormats {
+
+    public static final String DATE = "yyyy-MM-dd";
+    public static final String DATE_TIME = "yyyy-MM-dd HH:mm:ss";
+    /** ISO local date-time with milliseconds, used for response timestamps and invitations. */
+    public static final String TIMESTAMP = "yyyy-MM-dd'T'HH:mm:ss.SSS";
+    public static final String DISPLAY_DATE = "dd MMM yyyy";
+
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE);
+    public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME);
+    public static final DateTimeFormatter DISPLAY_DATE_FORMATTER = DateTimeFormatter.ofPattern(DISPLAY_DATE);
+
+    private DateFormats() {
+    }
+}
@@ -0,0 +1,11 @@
+-- Leaves tables created before LeaveStatus.EXPIRED have a status check constraint without it, and
+-- ddl-auto=update never alters an existing constraint. On a fresh schema the table does not exist
+-- yet; Hibernate creates it afterwards with every status.
+DO $$
+BEGIN
+    IF to_regclass('leaves') IS NOT NULL THEN
+        ALTER TABLE leaves DROP CONSTRAINT IF EXISTS leaves_status_check;
+        ALTER TABLE leaves ADD CONSTRAINT leaves_status_check
+            CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'CANCELLED', 'EXPIRED'));
+    END IF;
+END $$;
@@ -0,0 +1,163 @@
+package leavemanagementsystem.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import leavemanagementsystem.config.JacksonConfig;
+import leavemanagementsystem.dto.ApiResponse;
+import leavemanagementsystem.model.Leave;
+import leavemanagementsystem.model.LeaveStatus;
+import leavemanagementsystem.model.LeaveType;
+import leavemanagementsystem.model.Role;
+import leavemanagementsystem.model.User;
+import leavemanagementsystem.model.UserStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a page of 1,000 leaves wrapped in an {@link ApiResponse}, as returned by the leave
+ * listing endpoints, with the shared mapper from {@link JacksonConfig} and a writer prepared for the
+ * full response type, and with the previous HTTP setup: a plain mapper with the JSR-310 module and
+ * an untyped writer per response.
+ * <p>
+ * Run with {@code mvn -Pbenchmark verify -DskipTests}; the GC profiler reports the bytes allocated
+ * per serialization. The build fails when the speed-up is below {@link #REQUIRED_SPEEDUP} or the
+ * tuned stack allocates more than the previous one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    static final double REQUIRED_SPEEDUP = 1.1;
+    private static final int PAGE_SIZE = 1000;
+
+    private ApiResponse<List<Leave>> page;
+    private ObjectWriter tunedWriter;
+    private ObjectMapper legacyMapper;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(User.builder()
+                    .id((long) i)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("user" + i + "@example.com")
+                    .role(i == 0 ? Role.MANAGER : Role.STAFF)
+                    .status(UserStatus.APPROVED)
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+                    .updatedAt(LocalDateTime.of(2024, 1, 1, 9, 0))
+                    .build());
+        }
+
+        List<Leave> leaves = new ArrayList<>(PAGE_SIZE);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            boolean responded = i % 3 != 0;
+            leaves.add(Leave.builder()
+                    .id((long) i)
+                    .user(users.get(i % users.size()))
+                    .startDate(start.plusDays(i % 300))
+                    .endDate(start.plusDays(i % 300 + 2))
+                    .duration(3)
+                    .leaveType(LeaveType.values()[i % LeaveType.values().length])
+                    .reason("Family event number " + i)
+                    .status(responded ? LeaveStatus.APPROVED : LeaveStatus.PENDING)
+                    .respondedBy(responded ? users.get(0) : null)
+                    .responseDate(responded ? LocalDateTime.of(2024, 1, 2, 10, 30) : null)
+                    .comment(responded ? "Approved" : null)
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 8, 0))
+                    .updatedAt(LocalDateTime.of(2024, 1, 2, 10, 30))
+                    .build());
+        }
+        page = ApiResponse.success(leaves, "Leaves retrieved successfully");
+
+        ObjectMapper tunedMapper = JacksonConfig.createObjectMapper();
+        TypeFactory typeFactory = tunedMapper.getTypeFactory();
+        JavaType responseType = typeFactory.constructParametricType(ApiResponse.class,
+                typeFactory.constructCollectionType(List.class, Leave.class));
+        tunedWriter = tunedMapper.writerFor(responseType);
+
+        legacyMapper = new ObjectMapper();
+        legacyMapper.registerModule(new JavaTimeModule());
+    }
+
+    @Benchmark
+    public int tuned() throws IOException {
+        buffer.reset();
+        tunedWriter.writeValue(buffer, page);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int legacy() throws IOException {
+        buffer.reset();
+        legacyMapper.writer().writeValue(buffer, page);
+        return buffer.size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(JsonSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        double speedup = JwtVerificationBenchmark.score(results, "tuned") / JwtVerificationBenchmark.score(results, "legacy");
+        double tunedBytes = allocatedBytes(results, "tuned");
+        double legacyBytes = allocatedBytes(results, "legacy");
+        System.out.printf("Serialization speed-up: %.2fx (required %.1fx), allocated %.0f vs %.0f bytes per page%n",
+                speedup, REQUIRED_SPEEDUP, tunedBytes, legacyBytes);
+        if (speedup < REQUIRED_SPEEDUP) {
+            throw new IllegalStateException("Serialization speed-up below " + REQUIRED_SPEEDUP + "x: " + speedup);
+        }
+        if (tunedBytes > legacyBytes) {
+            throw new IllegalStateException("Tuned serialization allocates more than before: " + tunedBytes + " > " + legacyBytes);
+        }
+    }
+
+    private static double allocatedBytes(Collection<RunResult> results, String benchmark) {
+        RunResult run = results.stream()
+                .filter(result -> result.getParams().getBenchmark().endsWith("." + benchmark))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No result for " + benchmark));
+        for (Map.Entry<String, Result> entry : run.getSecondaryResults().entrySet()) {
+            if (entry.getKey().endsWith("gc.alloc.rate.norm")) {
+                return entry.getValue().getScore();
+            }
+        }
+        throw new IllegalStateException("No allocation result for " + benchmark);
+    }
+}
@@ -0,0 +1,124 @@
+package leavemanagementsystem.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import leavemanagementsystem.model.Role;
+import leavemanagementsystem.model.User;
+import leavemanagementsystem.model.UserStatus;
+import leavemanagementsystem.security.JwtService;
+import leavemanagementsystem.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Collection;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares access-token verification as done by {@link JwtService} with the previous
+ * implementation, which rebuilt the key and the parser for every parse and parsed the
+ * token three times per request.
+ * <p>
+ * Run with {@code mvn -Pbenchmark verify -DskipTests}; the build fails when the speed-up
+ * is below {@link #REQUIRED_SPEEDUP}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    static final double REQUIRED_SPEEDUP = 3.0;
+
+    private String secretKey;
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        secretKey = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", secretKey);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        User user = User.builder()
+                .id(42L)
+                .firstName("Bench")
+                .lastName("Mark")
+                .email("bench.mark@example.com")
+                .role(Role.STAFF)
+                .status(UserStatus.APPROVED)
+                .build();
+        token = jwtService.generateToken(user, UUID.randomUUID());
+    }
+
+    @Benchmark
+    public VerifiedToken singleParse() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyClaims(token).getSubject();
+        boolean sameUser = legacyClaims(token).getSubject().equals(username);
+        Date expiration = legacyClaims(token).getExpiration();
+        return sameUser && !expiration.before(new Date());
+    }
+
+    private Claims legacyClaims(String jwt) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        double current = score(results, "singleParse");
+        double legacy = score(results, "legacyTripleParse");
+        double speedup = current / legacy;
+        System.out.printf("Token verification speed-up: %.2fx (required %.1fx)%n", speedup, REQUIRED_SPEEDUP);
+        if (speedup < REQUIRED_SPEEDUP) {
+            throw new IllegalStateException("Token verification speed-up below " + REQUIRED_SPEEDUP + "x: " + speedup);
+        }
+    }
+
+    static double score(Collection<RunResult> results, String benchmark) {
+        return results.stream()
+                .filter(result -> result.getParams().getBenchmark().endsWith("." + benchmark))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No result for " + benchmark))
+                .getPrimaryResult()
+                .getScore();
+    }
+}
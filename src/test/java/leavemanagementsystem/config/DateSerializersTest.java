@@ -0,0 +1,44 @@
+package leavemanagementsystem.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import leavemanagementsystem.util.DateFormats;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateSerializersTest {
+
+    private final ObjectMapper objectMapper = JacksonConfig.createObjectMapper();
+
+    @Test
+    void writesTheSharedPatternsLikeTheFormatters() throws Exception {
+        LocalDate date = LocalDate.of(987, 3, 9);
+        LocalDateTime dateTime = LocalDateTime.of(2024, 12, 31, 7, 5, 59, 999_000_000);
+
+        assertThat(objectMapper.writeValueAsString(date))
+                .isEqualTo("\"" + DateFormats.DATE_FORMATTER.format(date) + "\"");
+        assertThat(objectMapper.writeValueAsString(dateTime))
+                .isEqualTo("\"" + DateFormats.DATE_TIME_FORMATTER.format(dateTime) + "\"");
+        assertThat(objectMapper.writeValueAsString(Map.of("at", LocalDateTime.of(12345, 1, 1, 0, 0))))
+                .isEqualTo("{\"at\":\"" + DateFormats.DATE_TIME_FORMATTER.format(LocalDateTime.of(12345, 1, 1, 0, 0)) + "\"}");
+    }
+
+    @Test
+    void honoursOtherPatternsOnProperties() throws Exception {
+        Dates dates = new Dates(LocalDate.of(2024, 2, 29), LocalDateTime.of(2024, 2, 29, 13, 45, 1, 20_000_000),
+                LocalDateTime.of(2024, 2, 29, 13, 45, 1));
+
+        assertThat(objectMapper.writeValueAsString(dates)).isEqualTo(
+                "{\"display\":\"29 Feb 2024\",\"timestamp\":\"2024-02-29T13:45:01.020\",\"plain\":\"2024-02-29 13:45:01\"}");
+    }
+
+    private record Dates(@JsonFormat(pattern = DateFormats.DISPLAY_DATE, locale = "en") LocalDate display,
+                         @JsonFormat(pattern = DateFormats.TIMESTAMP) LocalDateTime timestamp,
+                         @JsonFormat(pattern = DateFormats.DATE_TIME) LocalDateTime plain) {
+    }
+}
@@ -0,0 +1,47 @@
+package leavemanagementsystem.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HandlerTimingInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HandlerTimingInterceptor interceptor = new HandlerTimingInterceptor(meterRegistry);
+
+    @Test
+    void registersOnlyTheStatusFamiliesThatWereRecorded() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new Handler(), Handler.class.getMethod("handle"));
+
+        complete(handler, 200);
+        complete(handler, 204);
+        complete(handler, 404);
+
+        assertThat(meterRegistry.find("lms.http.handler").timers())
+                .extracting(timer -> timer.getId().getTag("status"))
+                .containsExactlyInAnyOrder("2xx", "4xx");
+        Timer ok = meterRegistry.get("lms.http.handler").tag("status", "2xx").timer();
+        assertThat(ok.count()).isEqualTo(2);
+        assertThat(ok.getId().getTag("controller")).isEqualTo("Handler");
+        assertThat(ok.getId().getTag("method")).isEqualTo("handle");
+    }
+
+    private void complete(HandlerMethod handler, int status) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        response.setStatus(status);
+        interceptor.afterCompletion(request, response, handler, null);
+    }
+
+    static class Handler {
+
+        public void handle() {
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package leavemanagementsystem.controller;
+
+import leavemanagementsystem.dto.AuthenticationRequest;
+import leavemanagementsystem.model.Leave;
+import leavemanagementsystem.model.LeaveStatus;
+import leavemanagementsystem.model.LeaveType;
+import leavemanagementsystem.model.Role;
+import leavemanagementsystem.model.User;
+import leavemanagementsystem.model.UserStatus;
+import leavemanagementsystem.repository.LeaveRepository;
+import leavemanagementsystem.repository.UserRepository;
+import leavemanagementsystem.service.AuthenticationService;
+import leavemanagementsystem.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static leavemanagementsystem.support.QueryCountAssertions.assertMaxQueries;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements behind the leave history endpoint, so that lazily loaded
+ * associations cannot turn it into one query per leave.
+ */
+class LeaveControllerQueryCountTest extends AbstractIntegrationTest {
+
+    private static final int MAX_QUERIES = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Value("${admin.email}")
+    private String adminEmail;
+
+    @Value("${admin.password}")
+    private String adminPassword;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Leave> leaves = new ArrayList<>();
+    private String token;
+    private User staff;
+
+    @BeforeEach
+    void setUp() {
+        token = authenticationService.authenticate(new AuthenticationRequest(adminEmail, adminPassword), "127.0.0.1")
+                .getToken();
+        staff = createUser(Role.STAFF);
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaveRepository.deleteAll(leaves);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void leaveHistoryStaysWithinItsQueryBudget() throws Throwable {
+        addLeaves(2);
+        assertMaxQueries(MAX_QUERIES, () -> getLeaves(2));
+    }
+
+    @Test
+    void leaveHistoryQueriesDoNotGrowWithTheNumberOfLeaves() throws Throwable {
+        addLeaves(8);
+        assertMaxQueries(MAX_QUERIES, () -> getLeaves(8));
+    }
+
+    private void getLeaves(int expected) throws Exception {
+        mockMvc.perform(get("/api/v1/leaves/user/" + staff.getId())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(expected));
+    }
+
+    /**
+     * Adds leaves for the staff member, each answered by a different manager.
+     */
+    private void addLeaves(int count) {
+        for (int i = 0; i < count; i++) {
+            LocalDate start = LocalDate.now().plusDays(7L * i + 1);
+            leaves.add(leaveRepository.save(Leave.builder()
+                    .user(staff)
+                    .startDate(start)
+                    .endDate(start.plusDays(1))
+                    .leaveType(LeaveType.PTO)
+                    .reason("Query budget test")
+                    .status(LeaveStatus.APPROVED)
+                    .respondedBy(createUser(Role.MANAGER))
+                    .responseDate(LocalDateTime.now())
+                    .build()));
+        }
+    }
+
+    private User createUser(Role role) {
+        User user = userRepository.save(User.builder()
+                .firstName("Query")
+                .lastName("Budget")
+                .email("query-budget-" + UUID.randomUUID() + "@example.com")
+                .password("unused")
+                .role(role)
+                .status(UserStatus.APPROVED)
+                .build());
+        users.add(user);
+        return user;
+    }
+}
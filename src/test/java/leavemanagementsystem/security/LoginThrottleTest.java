@@ -0,0 +1,204 @@
+package leavemanagementsystem.security;
+
+import leavemanagementsystem.exception.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String IP = "10.0.0.1";
+
+    private final MutableClock clock = new MutableClock();
+
+    /**
+     * 60 s windows, lockout after 3 attempts per account or 100 per client, 1 s base delay.
+     */
+    private LoginThrottle throttle(int emailThreshold) {
+        return new LoginThrottle(true, 60, emailThreshold, 100, 1000, 60000, 1000, clock);
+    }
+
+    @Test
+    void locksTheAccountOnceTheThresholdIsReached() {
+        LoginThrottle throttle = throttle(3);
+
+        throttle.reserve(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+
+        assertThatThrownBy(() -> throttle.reserve(EMAIL, IP))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(1));
+        assertThatThrownBy(() -> throttle.reserve(" USER@example.com ", "10.0.0.2"))
+                .isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void weighsThePreviousWindowByTheTimeLeftInIt() {
+        LoginThrottle throttle = throttle(3);
+        clock.set(10_000);
+        throttle.reserve(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+
+        // Halfway through the next window the two earlier attempts count as one
+        clock.set(90_000);
+        throttle.reserve(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+        assertThatThrownBy(() -> throttle.reserve(EMAIL, IP)).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void forgetsAttemptsOlderThanTheSlidingWindow() {
+        LoginThrottle throttle = throttle(3);
+        throttle.reserve(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+
+        clock.set(120_000);
+        throttle.reserve(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+        assertThatThrownBy(() -> throttle.reserve(EMAIL, IP)).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void doublesTheLockoutForEveryFurtherAttempt() {
+        LoginThrottle throttle = throttle(2);
+        throttle.reserve(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+        assertThat(retryAfter(throttle)).isEqualTo(1);
+
+        clock.advance(1000);
+        throttle.reserve(EMAIL, IP);
+        assertThat(retryAfter(throttle)).isEqualTo(2);
+
+        clock.advance(2000);
+        throttle.reserve(EMAIL, IP);
+        assertThat(retryAfter(throttle)).isEqualTo(4);
+    }
+
+    @Test
+    void allowsAttemptsAgainOnceTheLockoutExpires() {
+        LoginThrottle throttle = throttle(2);
+        throttle.reserve(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+        assertThatThrownBy(() -> throttle.reserve(EMAIL, IP)).isInstanceOf(TooManyRequestsException.class);
+
+        clock.advance(999);
+        assertThatThrownBy(() -> throttle.reserve(EMAIL, IP)).isInstanceOf(TooManyRequestsException.class);
+
+        clock.advance(1);
+        throttle.reserve(EMAIL, IP);
+    }
+
+    @Test
+    void successClearsTheAccountAndReleaseGivesTheSlotBack() {
+        LoginThrottle throttle = throttle(2);
+        throttle.reserve(EMAIL, IP);
+        throttle.recordSuccess(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+        throttle.release(EMAIL, IP);
+
+        throttle.reserve(EMAIL, IP);
+        throttle.reserve(EMAIL, IP);
+        assertThatThrownBy(() -> throttle.reserve(EMAIL, IP)).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void successOnTheAttemptThatReachesTheClientThresholdLiftsTheLockout() {
+        LoginThrottle throttle = new LoginThrottle(true, 60, 100, 3, 1000, 60000, 1000, clock);
+        throttle.reserve("a@example.com", IP);
+        throttle.reserve("b@example.com", IP);
+
+        throttle.reserve(EMAIL, IP);
+        throttle.recordSuccess(EMAIL, IP);
+
+        // The two failures are still counted, so the next attempt locks the client again
+        throttle.reserve(EMAIL, IP);
+        assertThatThrownBy(() -> throttle.reserve(EMAIL, IP)).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void concurrentAttemptsCannotAllPassTheCheck() throws Exception {
+        LoginThrottle throttle = throttle(5);
+        int threads = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        throttle.reserve(EMAIL, IP);
+                        return true;
+                    } catch (TooManyRequestsException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int admitted = 0;
+            for (Future<Boolean> result : results) {
+                admitted += result.get() ? 1 : 0;
+            }
+            assertThat(admitted).isEqualTo(5);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long retryAfter(LoginThrottle throttle) {
+        try {
+            throttle.reserve(EMAIL, IP);
+        } catch (TooManyRequestsException e) {
+            return e.getRetryAfterSeconds();
+        }
+        throw new AssertionError("Expected the attempt to be rejected");
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile long millis;
+
+        void set(long millis) {
+            this.millis = millis;
+        }
+
+        void advance(long millis) {
+            this.millis += millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package leavemanagementsystem.security;
+
+import leavemanagementsystem.service.CacheInvalidationBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class PrincipalCacheTest {
+
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+    // Principals cached for 60 s, at most 3 change records, tokens valid for an hour
+    private final PrincipalCache cache = new PrincipalCache(invalidationBus, 100, 60, 3, 3_600_000);
+
+    private final long issuedBefore = System.currentTimeMillis() - 1000;
+    private final long issuedAfter = System.currentTimeMillis() + 60_000;
+
+    @Test
+    void marksTokensIssuedBeforeAChangeAsStale() {
+        cache.invalidateAll(List.of("a@example.com", "b@example.com"));
+
+        assertThat(cache.isStale("a@example.com", issuedBefore)).isTrue();
+        assertThat(cache.isStale("b@example.com", issuedBefore)).isTrue();
+        assertThat(cache.isStale("a@example.com", issuedAfter)).isFalse();
+        assertThat(cache.isStale("c@example.com", issuedBefore)).isFalse();
+    }
+
+    @Test
+    void flushesEveryTokenWhenAChangeExceedsTheRecordCapacity() {
+        cache.invalidate("a@example.com");
+        cache.invalidateAll(IntStream.range(0, 5).mapToObj(i -> "bulk" + i + "@example.com").toList());
+
+        assertThat(cache.isStale("a@example.com", issuedBefore)).isTrue();
+        assertThat(cache.isStale("bulk4@example.com", issuedBefore)).isTrue();
+        assertThat(cache.isStale("unrelated@example.com", issuedBefore)).isTrue();
+        assertThat(cache.isStale("bulk4@example.com", issuedAfter)).isFalse();
+        verify(invalidationBus).publish(cache.getCacheName(), CacheInvalidationBus.FLUSH_ALL);
+    }
+
+    @Test
+    void keepsEveryRecordUpToTheCapacity() {
+        cache.invalidateAll(List.of("a@example.com", "b@example.com", "c@example.com"));
+
+        assertThat(cache.isStale("a@example.com", issuedBefore)).isTrue();
+        assertThat(cache.isStale("unrelated@example.com", issuedBefore)).isFalse();
+    }
+}
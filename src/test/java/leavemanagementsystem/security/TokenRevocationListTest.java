@@ -0,0 +1,61 @@
+package leavemanagementsystem.security;
+
+import leavemanagementsystem.repository.RefreshTokenRepository;
+import leavemanagementsystem.service.CacheInvalidationBus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    private static final long ACCESS_TOKEN_EXPIRATION_MS = 200;
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+    private final TokenRevocationList revocationList =
+            new TokenRevocationList(refreshTokenRepository, invalidationBus, ACCESS_TOKEN_EXPIRATION_MS, 100);
+
+    @Test
+    void revokedFamiliesAreRejectedAndSentToTheOtherNodes() {
+        String family = UUID.randomUUID().toString();
+
+        revocationList.revoke(family);
+
+        assertThat(revocationList.isRevoked(family)).isTrue();
+        assertThat(revocationList.isRevoked(UUID.randomUUID().toString())).isFalse();
+        assertThat(revocationList.isRevoked(null)).isFalse();
+        verify(invalidationBus).publish(revocationList.getCacheName(), family);
+    }
+
+    @Test
+    void resyncLoadsFamiliesRevokedOnOtherNodes() {
+        UUID family = UUID.randomUUID();
+        when(refreshTokenRepository.findFamilyIdsRevokedSince(any())).thenReturn(List.of(family));
+
+        revocationList.refresh();
+
+        assertThat(revocationList.isRevoked(family.toString())).isTrue();
+    }
+
+    @Test
+    void resyncForgetsFamiliesWhoseAccessTokensHaveExpired() throws InterruptedException {
+        String expired = UUID.randomUUID().toString();
+        revocationList.revoke(expired);
+        when(refreshTokenRepository.findFamilyIdsRevokedSince(any())).thenReturn(List.of());
+
+        Thread.sleep(ACCESS_TOKEN_EXPIRATION_MS * 2);
+        String recent = UUID.randomUUID().toString();
+        revocationList.revoke(recent);
+        revocationList.refresh();
+
+        assertThat(revocationList.isRevoked(expired)).isFalse();
+        assertThat(revocationList.isRevoked(recent)).isTrue();
+    }
+}
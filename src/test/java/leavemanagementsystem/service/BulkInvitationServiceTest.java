@@ -0,0 +1,90 @@
+package leavemanagementsystem.service;
+
+import leavemanagementsystem.dto.BulkInvitationReport;
+import leavemanagementsystem.exception.BadRequestException;
+import leavemanagementsystem.model.UserInvitation;
+import leavemanagementsystem.repository.UserInvitationRepository;
+import leavemanagementsystem.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkInvitationServiceTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private BulkInvitationService bulkInvitationService;
+
+    @Autowired
+    private UserInvitationRepository invitationRepository;
+
+    private Object maxRows;
+    private Object chunkSize;
+    private final List<String> imported = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        maxRows = ReflectionTestUtils.getField(bulkInvitationService, "maxRows");
+        chunkSize = ReflectionTestUtils.getField(bulkInvitationService, "chunkSize");
+        ReflectionTestUtils.setField(bulkInvitationService, "maxRows", 3);
+        ReflectionTestUtils.setField(bulkInvitationService, "chunkSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imported.forEach(email -> invitationRepository.findByEmailAndUsedFalse(email).ifPresent(invitationRepository::delete));
+        ReflectionTestUtils.setField(bulkInvitationService, "maxRows", maxRows);
+        ReflectionTestUtils.setField(bulkInvitationService, "chunkSize", chunkSize);
+    }
+
+    @Test
+    void rejectsAFileOverTheRowLimitBeforeWritingAnyInvitation() {
+        List<String> emails = emails(4);
+
+        assertThatThrownBy(() -> bulkInvitationService.importInvitations(csv(emails)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("more than 3 rows");
+        assertThat(invitationRepository.findActiveInvitationEmails(emails)).isEmpty();
+    }
+
+    @Test
+    void insertsEveryChunkWithTokensExpiryAndTimestamps() {
+        List<String> emails = emails(3);
+        imported.addAll(emails);
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+
+        BulkInvitationReport report = bulkInvitationService.importInvitations(csv(emails));
+
+        assertThat(report.getInvited()).isEqualTo(3);
+        for (String email : emails) {
+            UserInvitation invitation = invitationRepository.findByEmailAndUsedFalse(email).orElseThrow();
+            assertThat(invitation.getToken()).isNotBlank();
+            assertThat(invitation.getExpiryDate()).isAfter(LocalDateTime.now());
+            assertThat(invitation.getCreatedAt()).isAfter(before);
+            assertThat(invitation.getUpdatedAt()).isEqualTo(invitation.getCreatedAt());
+        }
+    }
+
+    private static List<String> emails(int count) {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        return IntStream.range(0, count).mapToObj(i -> "bulk-" + run + "-" + i + "@example.com").toList();
+    }
+
+    private static MockMultipartFile csv(List<String> emails) {
+        StringBuilder content = new StringBuilder("firstName,lastName,email,role\n");
+        emails.forEach(email -> content.append("Bulk,Invite,").append(email).append(",STAFF\n"));
+        return new MockMultipartFile("file", "invitations.csv", "text/csv", content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,55 @@
+package leavemanagementsystem.service;
+
+import leavemanagementsystem.model.Role;
+import leavemanagementsystem.model.UserStatus;
+import leavemanagementsystem.security.AuthenticatedPrincipal;
+import leavemanagementsystem.security.PrincipalCache;
+import leavemanagementsystem.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Evictions published inside a transaction are applied to this node again once it commits.
+ */
+class CacheInvalidationBusTest extends AbstractIntegrationTest {
+
+    private static final String EMAIL = "bus-test@example.com";
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void evictsAnEntryReloadedBeforeTheCommitAgain() {
+        transactionTemplate.executeWithoutResult(status -> {
+            principalCache.invalidate(EMAIL);
+            // A concurrent request caching the row as it was before the commit
+            principalCache.put(principal());
+            assertThat(principalCache.get(EMAIL)).isNotNull();
+        });
+
+        assertThat(principalCache.get(EMAIL)).isNull();
+    }
+
+    @Test
+    void doesNotEvictAgainAfterARollback() {
+        principalCache.put(principal());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            principalCache.invalidate(EMAIL);
+            principalCache.put(principal());
+            status.setRollbackOnly();
+        });
+
+        assertThat(principalCache.get(EMAIL)).isNotNull();
+    }
+
+    private static AuthenticatedPrincipal principal() {
+        return new AuthenticatedPrincipal(-1L, EMAIL, Role.STAFF, UserStatus.APPROVED, null);
+    }
+}
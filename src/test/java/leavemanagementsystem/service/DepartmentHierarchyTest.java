@@ -0,0 +1,127 @@
+package leavemanagementsystem.service;
+
+import leavemanagementsystem.exception.BadRequestException;
+import leavemanagementsystem.model.Department;
+import leavemanagementsystem.repository.DepartmentClosureRepository;
+import leavemanagementsystem.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercises the closure table statements through {@link DepartmentService}: insert on create,
+ * detach and attach on move.
+ */
+class DepartmentHierarchyTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private DepartmentClosureRepository closureRepository;
+
+    private final List<Department> created = new ArrayList<>();
+    private Department root;
+    private Department child;
+    private Department grandchild;
+    private Department otherRoot;
+
+    @BeforeEach
+    void setUp() {
+        root = create(null);
+        child = create(root);
+        grandchild = create(child);
+        otherRoot = create(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Flatten first, so that every department can be deleted whatever the test left behind
+        created.forEach(department -> departmentService.moveDepartment(department.getId(), null));
+        created.forEach(department -> departmentService.deleteDepartment(department.getId()));
+    }
+
+    @Test
+    void linksANewDepartmentToEveryAncestorOfItsParent() {
+        assertThat(closureRepository.findAncestorIds(grandchild.getId())).containsExactly(child.getId(), root.getId());
+        assertThat(closureRepository.findAncestorIds(root.getId())).isEmpty();
+        assertThat(closureRepository.isInSubtree(grandchild.getId(), grandchild.getId())).isTrue();
+    }
+
+    @Test
+    void movesASubtreeUnderANewParent() {
+        departmentService.moveDepartment(child.getId(), otherRoot.getId());
+
+        assertThat(closureRepository.findAncestorIds(child.getId())).containsExactly(otherRoot.getId());
+        assertThat(closureRepository.findAncestorIds(grandchild.getId())).containsExactly(child.getId(), otherRoot.getId());
+        assertThat(closureRepository.isInSubtree(root.getId(), grandchild.getId())).isFalse();
+        assertThat(closureRepository.isInSubtree(root.getId(), root.getId())).isTrue();
+    }
+
+    @Test
+    void movesASubtreeToTheTopLevel() {
+        departmentService.moveDepartment(child.getId(), null);
+
+        assertThat(closureRepository.findAncestorIds(child.getId())).isEmpty();
+        assertThat(closureRepository.findAncestorIds(grandchild.getId())).containsExactly(child.getId());
+        assertThat(departmentService.getDepartment(child.getId()).getParentId()).isNull();
+    }
+
+    @Test
+    void rejectsMovingADepartmentUnderItsOwnSubtree() {
+        assertThatThrownBy(() -> departmentService.moveDepartment(root.getId(), grandchild.getId()))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> departmentService.moveDepartment(child.getId(), child.getId()))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(closureRepository.findAncestorIds(grandchild.getId())).containsExactly(child.getId(), root.getId());
+    }
+
+    @Test
+    void concurrentMovesCannotCloseACycle() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> rootUnderOther = executor.submit(() -> move(start, root, otherRoot));
+            Future<Boolean> otherUnderGrandchild = executor.submit(() -> move(start, otherRoot, grandchild));
+            start.countDown();
+
+            assertThat(List.of(rootUnderOther.get(), otherUnderGrandchild.get())).containsExactlyInAnyOrder(true, false);
+        } finally {
+            executor.shutdownNow();
+        }
+        for (Department department : created) {
+            assertThat(closureRepository.findAncestorIds(department.getId())).doesNotContain(department.getId());
+        }
+    }
+
+    private boolean move(CountDownLatch start, Department department, Department parent) throws InterruptedException {
+        start.await();
+        try {
+            departmentService.moveDepartment(department.getId(), parent.getId());
+            return true;
+        } catch (BadRequestException e) {
+            return false;
+        }
+    }
+
+    private Department create(Department parent) {
+        Department department = departmentService.createDepartment(Department.builder()
+                .name("hierarchy-test-" + UUID.randomUUID())
+                .parent(parent)
+                .build());
+        created.add(department);
+        return department;
+    }
+}
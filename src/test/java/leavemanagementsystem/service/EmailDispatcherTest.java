@@ -0,0 +1,57 @@
+package leavemanagementsystem.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // One worker, room for one queued email, no rate limit
+    private final EmailDispatcher dispatcher = new EmailDispatcher(meterRegistry, runnable -> runnable, 1, 1, 0, false);
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void refusesEmailsOnceTheQueueIsFullInsteadOfSendingThemOnTheCaller() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger sentOnCaller = new AtomicInteger();
+        Thread caller = Thread.currentThread();
+
+        assertThat(dispatcher.dispatch("a@example.com", () -> {
+            sending.countDown();
+            await(release);
+        })).isTrue();
+        sending.await(5, TimeUnit.SECONDS);
+        assertThat(dispatcher.dispatch("b@example.com", () -> { })).isTrue();
+
+        boolean queued = dispatcher.dispatch("c@example.com", () -> {
+            if (Thread.currentThread() == caller) {
+                sentOnCaller.incrementAndGet();
+            }
+        });
+        release.countDown();
+
+        assertThat(queued).isFalse();
+        assertThat(sentOnCaller).hasValue(0);
+        assertThat(meterRegistry.counter("lms.email.dispatch.rejected").count()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package leavemanagementsystem.service;
+
+import leavemanagementsystem.dto.CacheRegionStatsDTO;
+import leavemanagementsystem.model.Department;
+import leavemanagementsystem.repository.DepartmentRepository;
+import leavemanagementsystem.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Region statistics come from the JCache MXBeans, with Hibernate's statistics collection off.
+ */
+class EntityCacheStatisticsTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    private Department department;
+
+    @BeforeEach
+    void setUp() {
+        department = departmentService.createDepartment(Department.builder()
+                .name("cache-statistics-test-" + UUID.randomUUID())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        departmentService.deleteDepartment(department.getId());
+    }
+
+    @Test
+    void countsSecondLevelCacheHitsPerRegion() {
+        departmentRepository.findById(department.getId());
+        CacheRegionStatsDTO before = region("departments");
+
+        departmentRepository.findById(department.getId());
+        departmentRepository.findById(department.getId());
+        CacheRegionStatsDTO after = region("departments");
+
+        assertThat(after.getHits()).isEqualTo(before.getHits() + 2);
+        assertThat(after.getElementsInMemory()).isPositive();
+        assertThat(entityCacheService.getStatistics())
+                .extracting(CacheRegionStatsDTO::getRegion)
+                .contains("default-query-results-region");
+    }
+
+    private CacheRegionStatsDTO region(String name) {
+        return entityCacheService.getStatistics().stream()
+                .filter(stats -> stats.getRegion().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,91 @@
+package leavemanagementsystem.service;
+
+import leavemanagementsystem.repository.JobLeaseRepository;
+import leavemanagementsystem.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two coordinators acting as separate nodes against the same database.
+ */
+class JobCoordinatorTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    private JobCoordinator nodeA;
+    private JobCoordinator nodeB;
+    private String job;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new JobCoordinator(jobLeaseRepository, "node-a", 60000, 20000);
+        nodeB = new JobCoordinator(jobLeaseRepository, "node-b", 60000, 20000);
+        job = "test-job-" + UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+        jobLeaseRepository.deleteById(job);
+    }
+
+    @Test
+    void onlyOneNodeRunsTheJobAtATime() {
+        AtomicBoolean ranOnB = new AtomicBoolean();
+        AtomicBoolean bSkipped = new AtomicBoolean();
+
+        boolean ranOnA = nodeA.runExclusively(job, () -> {
+            assertThat(nodeA.holdsLease(job)).isTrue();
+            bSkipped.set(!nodeB.runExclusively(job, () -> ranOnB.set(true)));
+            assertThat(nodeB.holdsLease(job)).isFalse();
+        });
+
+        assertThat(ranOnA).isTrue();
+        assertThat(bSkipped).isTrue();
+        assertThat(ranOnB).isFalse();
+        assertThat(nodeA.holdsLease(job)).isFalse();
+    }
+
+    @Test
+    void nodeThatLostTheRaceCanRunTheJobLater() {
+        nodeA.runExclusively(job, () -> assertThat(nodeB.runExclusively(job, () -> { })).isFalse());
+
+        AtomicBoolean ranOnB = new AtomicBoolean();
+        assertThat(nodeB.runExclusively(job, () -> ranOnB.set(true))).isTrue();
+        assertThat(ranOnB).isTrue();
+        assertThat(nodeA.runExclusively(job, () -> { })).isTrue();
+    }
+
+    @Test
+    void leaseIsNoLongerHeldOnceItCouldHaveLapsed() {
+        JobCoordinator shortLease = new JobCoordinator(jobLeaseRepository, "node-short", 200, 60000);
+        try {
+            shortLease.runExclusively(job, () -> {
+                assertThat(shortLease.holdsLease(job)).isTrue();
+                sleep(400);
+                // No heartbeat within the lease: the lease must be treated as lost
+                assertThat(shortLease.holdsLease(job)).isFalse();
+                assertThat(nodeB.runExclusively(job, () -> { })).isTrue();
+            });
+        } finally {
+            shortLease.shutdown();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package leavemanagementsystem.service;
+
+import leavemanagementsystem.dto.AuthenticationRequest;
+import leavemanagementsystem.dto.AuthenticationResponse;
+import leavemanagementsystem.exception.UnauthorizedException;
+import leavemanagementsystem.security.JwtService;
+import leavemanagementsystem.security.TokenRevocationList;
+import leavemanagementsystem.support.AbstractIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Refresh-token rotation, reuse detection and logout, through {@link AuthenticationService}.
+ */
+class RefreshTokenRotationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Value("${admin.email}")
+    private String adminEmail;
+
+    @Value("${admin.password}")
+    private String adminPassword;
+
+    @Test
+    void rotatesTheRefreshTokenWithinItsFamily() {
+        AuthenticationResponse login = login();
+        AuthenticationResponse first = authenticationService.refreshToken(login.getRefreshToken());
+        AuthenticationResponse second = authenticationService.refreshToken(first.getRefreshToken());
+
+        assertThat(first.getRefreshToken()).isNotEqualTo(login.getRefreshToken());
+        assertThat(second.getRefreshToken()).isNotEqualTo(first.getRefreshToken());
+        assertThat(familyOf(second.getRefreshToken())).isEqualTo(familyOf(login.getRefreshToken()));
+        assertThat(familyOf(second.getToken())).isEqualTo(familyOf(login.getRefreshToken()));
+        assertThat(revocationList.isRevoked(familyOf(second.getToken()))).isFalse();
+    }
+
+    @Test
+    void reusingAConsumedRefreshTokenRevokesTheWholeFamily() {
+        AuthenticationResponse login = login();
+        AuthenticationResponse rotated = authenticationService.refreshToken(login.getRefreshToken());
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(login.getRefreshToken()))
+                .isInstanceOf(UnauthorizedException.class);
+
+        assertThat(revocationList.isRevoked(familyOf(rotated.getToken()))).isTrue();
+        assertThatThrownBy(() -> authenticationService.refreshToken(rotated.getRefreshToken()))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void logoutRequiresARefreshTokenAndRevokesItsFamily() {
+        AuthenticationResponse login = login();
+
+        assertThatThrownBy(() -> authenticationService.logout(login.getToken()))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(revocationList.isRevoked(familyOf(login.getToken()))).isFalse();
+
+        authenticationService.logout(login.getRefreshToken());
+        assertThat(revocationList.isRevoked(familyOf(login.getToken()))).isTrue();
+        assertThatThrownBy(() -> authenticationService.refreshToken(login.getRefreshToken()))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    private AuthenticationResponse login() {
+        return authenticationService.authenticate(new AuthenticationRequest(adminEmail, adminPassword), "127.0.0.1");
+    }
+
+    private String familyOf(String token) {
+        return jwtService.verify(token).getFamilyId();
+    }
+}
@@ -0,0 +1,70 @@
+package leavemanagementsystem.service;
+
+import leavemanagementsystem.dto.UserSummaryDTO;
+import leavemanagementsystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserDirectoryIndexTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserDirectoryIndex index = new UserDirectoryIndex(userRepository, mock(CacheInvalidationBus.class),
+            mock(PlatformTransactionManager.class));
+
+    @Test
+    void keepsChangesMadeWhileARebuildIsLoading() throws Exception {
+        CountDownLatch snapshotTaken = new CountDownLatch(1);
+        CountDownLatch changed = new CountDownLatch(1);
+        when(userRepository.findAllSummaries()).thenAnswer(invocation -> {
+            snapshotTaken.countDown();
+            changed.await(5, TimeUnit.SECONDS);
+            return List.of(user(1L, "Alice"), user(2L, "Bob"));
+        });
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(index::rebuild);
+        snapshotTaken.await(5, TimeUnit.SECONDS);
+        index.put(user(1L, "Alicia"));
+        index.put(user(3L, "Carol"));
+        index.remove(2L);
+        changed.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+
+        assertThat(firstNames("ali")).containsExactly("Alicia");
+        assertThat(firstNames("carol")).containsExactly("Carol");
+        assertThat(firstNames("bob")).isEmpty();
+    }
+
+    @Test
+    void replacesTheTermsOfAChangedUser() {
+        when(userRepository.findAllSummaries()).thenReturn(List.of(user(1L, "Alice")));
+        index.rebuild();
+
+        index.put(user(1L, "Beatrice"));
+
+        assertThat(firstNames("alice")).isEmpty();
+        assertThat(firstNames("bea")).containsExactly("Beatrice");
+        assertThat(firstNames("smith")).containsExactly("Beatrice");
+    }
+
+    private List<String> firstNames(String query) {
+        return index.search(query, 0, 10).getContent().stream().map(UserSummaryDTO::getFirstName).toList();
+    }
+
+    private static UserSummaryDTO user(Long id, String firstName) {
+        return UserSummaryDTO.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName("Smith")
+                .email(firstName.toLowerCase() + "@example.com")
+                .build();
+    }
+}
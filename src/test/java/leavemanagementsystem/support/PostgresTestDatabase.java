@@ -0,0 +1,39 @@
+package leavemanagementsystem.support;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Database for integration tests: the Postgres instance given by {@code TEST_DB_URL} (with
+ * {@code TEST_DB_USERNAME} and {@code TEST_DB_PASSWORD}), or else a Testcontainers Postgres that is
+ * started once and shared by every test class.
+ */
+public final class PostgresTestDatabase {
+
+    private static PostgreSQLContainer<?> container;
+
+    private PostgresTestDatabase() {
+    }
+
+    public static synchronized void register(DynamicPropertyRegistry registry) {
+        String url = System.getenv("TEST_DB_URL");
+        if (url != null && !url.isBlank()) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> env("TEST_DB_USERNAME", "postgres"));
+            registry.add("spring.datasource.password", () -> env("TEST_DB_PASSWORD", ""));
+            return;
+        }
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:16-alpine");
+            container.start();
+        }
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,50 @@
+package leavemanagementsystem.support;
+
+import leavemanagementsystem.config.QueryStatistics;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Asserts how many SQL statements a block of test code executes on the current thread.
+ * <p>
+ * Requests performed through {@code MockMvc} run on the test thread, so an endpoint's query budget
+ * can be pinned down in an integration test:
+ * <pre>{@code
+ * QueryCountAssertions.assertMaxQueries(2, () -> mockMvc.perform(get("/api/v1/leaves/user/" + userId)
+ *         .header("Authorization", "Bearer " + token)).andExpect(status().isOk()));
+ * }</pre>
+ * On failure the message lists every statement shape with its execution count.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static void assertMaxQueries(int max, Executable action) throws Throwable {
+        assertMaxQueries(max, () -> {
+            action.execute();
+            return null;
+        });
+    }
+
+    public static <T> T assertMaxQueries(int max, ThrowingSupplier<T> action) throws Throwable {
+        QueryStatistics statistics = QueryStatistics.open();
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            statistics.close();
+        }
+        if (statistics.getStatementCount() > max) {
+            fail("Expected at most " + max + " SQL statements but " + statistics.getStatementCount() + " were executed:\n"
+                    + statistics.getRepeatedShapes(0).entrySet().stream()
+                    .map(entry -> "  " + entry.getValue() + "x " + entry.getKey())
+                    .collect(Collectors.joining("\n")));
+        }
+        return result;
+    }
+}